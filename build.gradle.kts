@@ -3,6 +3,7 @@ plugins {
 	id("org.springframework.boot") version "3.5.5"
 	id("io.spring.dependency-management") version "1.1.7"
 	id("org.asciidoctor.jvm.convert") version "3.3.2"
+	id("me.champeau.jmh") version "0.7.2"
 }
 
 group = "com.zoe"
@@ -28,6 +29,7 @@ repositories {
 extra["snippetsDir"] = file("build/generated-snippets")
 
 dependencies {
+	implementation("org.springframework.boot:spring-boot-starter-actuator")
 	implementation("org.springframework.boot:spring-boot-starter-data-jpa")
 	implementation("org.springframework.boot:spring-boot-starter-mail")
 	implementation("org.springframework.boot:spring-boot-starter-security")
@@ -41,7 +43,9 @@ dependencies {
     implementation("io.jsonwebtoken:jjwt-api:0.11.5")
     implementation("org.apache.commons:commons-lang3:3.18.0")
     implementation("org.mapstruct:mapstruct:1.5.5.Final")
+    implementation("com.github.ben-manes.caffeine:caffeine")
     runtimeOnly("org.postgresql:postgresql")
+    runtimeOnly("io.micrometer:micrometer-registry-prometheus")
     runtimeOnly("io.jsonwebtoken:jjwt-impl:0.11.5")
     runtimeOnly("io.jsonwebtoken:jjwt-jackson:0.11.5")
 	compileOnly("org.projectlombok:lombok")
@@ -54,6 +58,8 @@ dependencies {
 	testImplementation("org.springframework.restdocs:spring-restdocs-mockmvc")
 	testImplementation("org.springframework.security:spring-security-test")
 	testRuntimeOnly("org.junit.platform:junit-platform-launcher")
+    jmh("org.springframework:spring-test")
+    jmh("org.mockito:mockito-core")
 }
 
 tasks.withType<Test> {
@@ -64,6 +70,22 @@ tasks.test {
 	outputs.dir(project.extra["snippetsDir"]!!)
 }
 
+jmh {
+    resultFormat.set("JSON")
+    resultsFile.set(layout.buildDirectory.file("results/jmh/results.json"))
+    fork.set(1)
+    warmupIterations.set(3)
+    iterations.set(5)
+}
+
+tasks.register<JavaExec>("loadTest") {
+    group = "benchmark"
+    description = "Runs the closed-loop load driver against a running server (see AuthLoadDriver)."
+    classpath = sourceSets["jmh"].runtimeClasspath
+    mainClass.set("com.zoe.server.benchmarks.load.AuthLoadDriver")
+    systemProperties(project.properties.filterKeys { it.startsWith("load.") })
+}
+
 tasks.asciidoctor {
 	inputs.dir(project.extra["snippetsDir"]!!)
 	dependsOn(tasks.test)
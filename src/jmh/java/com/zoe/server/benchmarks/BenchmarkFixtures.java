@@ -0,0 +1,72 @@
+package com.zoe.server.benchmarks;
+
+import com.zoe.server.domain.auth.repositories.JwtSigningKeyStore;
+import com.zoe.server.domain.auth.services.JwtKeyRing;
+import com.zoe.server.domain.auth.services.JwtService;
+import com.zoe.server.domain.user.enums.UserRole;
+import com.zoe.server.domain.user.models.UserAuthView;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+final class BenchmarkFixtures {
+
+    static final String SECRET = "benchmark-secret-0123456789-abcdefghijklmnopqrstuvwxyz";
+    static final String EMAIL = "benchmark@zoe.com";
+    static final long USER_ID = 42L;
+
+    private BenchmarkFixtures() {
+    }
+
+    static JwtService jwtService(String signingAlgorithm, boolean verifiedTokenCache) {
+        JwtKeyRing keyRing = new JwtKeyRing(new InMemoryKeyStore(), signingAlgorithm, 900_000L, Duration.ofMinutes(1),
+                Duration.ofHours(24), Duration.ofSeconds(5), SECRET);
+        keyRing.init();
+        JwtService jwtService = new JwtService(keyRing);
+        ReflectionTestUtils.setField(jwtService, "secretKeyString", SECRET);
+        ReflectionTestUtils.setField(jwtService, "accessTokenExpiration", 900_000L);
+        ReflectionTestUtils.setField(jwtService, "refreshTokenExpiration", 604_800_000L);
+        ReflectionTestUtils.setField(jwtService, "verifiedTokenCacheEnabled", verifiedTokenCache);
+        ReflectionTestUtils.setField(jwtService, "verifiedTokenCacheMaxSize", 10_000L);
+        jwtService.init();
+        return jwtService;
+    }
+
+    static UserAuthView authView(String passwordHash) {
+        return new UserAuthView(USER_ID, EMAIL, passwordHash, UserRole.PATIENT, false, null, true, 0);
+    }
+
+    /**
+     * Key store for a single benchmark JVM; the ring only reads it at start-up
+     * and on rotation, so it stays off the measured path.
+     */
+    private static final class InMemoryKeyStore implements JwtSigningKeyStore {
+
+        private final Map<String, StoredSigningKey> keys = new LinkedHashMap<>();
+
+        @Override
+        public synchronized List<StoredSigningKey> findAll() {
+            return new ArrayList<>(keys.values());
+        }
+
+        @Override
+        public synchronized void save(StoredSigningKey key) {
+            keys.put(key.kid(), key);
+        }
+
+        @Override
+        public synchronized void delete(String kid) {
+            keys.remove(kid);
+        }
+
+        @Override
+        public synchronized <T> T exclusively(Supplier<T> work) {
+            return work.get();
+        }
+    }
+}
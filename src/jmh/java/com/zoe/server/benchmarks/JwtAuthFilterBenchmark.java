@@ -0,0 +1,77 @@
+package com.zoe.server.benchmarks;
+
+import com.zoe.server.config.security.JwtAuthFilter;
+import com.zoe.server.domain.auth.metrics.AuthMetrics;
+import com.zoe.server.domain.auth.repositories.RevokedAccessTokenRepository;
+import com.zoe.server.domain.auth.services.AccessTokenRevocationList;
+import com.zoe.server.domain.auth.services.JwtService;
+import com.zoe.server.domain.user.enums.UserRole;
+import com.zoe.server.domain.user.repositories.UserRepository;
+import com.zoe.server.domain.user.services.CustomUserDetailsService;
+import com.zoe.server.domain.user.services.UserPrincipalCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One full pass through {@link JwtAuthFilter} for an authenticated request. The
+ * user repository is a mock, so the stateful numbers exclude database time and
+ * only show the cost of the lookup path on top of token verification.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JwtAuthFilterBenchmark {
+
+    private static final FilterChain NO_OP_CHAIN = (request, response) -> { };
+
+    @Param({"false", "true"})
+    public boolean statelessAuth;
+
+    @Param({"false", "true"})
+    public boolean principalCache;
+
+    private JwtAuthFilter filter;
+    private String authorizationHeader;
+
+    @Setup
+    public void setUp() {
+        JwtService jwtService = BenchmarkFixtures.jwtService("HS256", false);
+        UserRepository userRepository = Mockito.mock(UserRepository.class);
+        Mockito.when(userRepository.findAuthViewByEmail(BenchmarkFixtures.EMAIL))
+                .thenReturn(Optional.of(BenchmarkFixtures.authView("{noop}password")));
+        CustomUserDetailsService userDetailsService = new CustomUserDetailsService(userRepository);
+        UserPrincipalCache cache = new UserPrincipalCache(principalCache, 10_000, Duration.ofMinutes(5));
+
+        AuthMetrics authMetrics = new AuthMetrics(new SimpleMeterRegistry());
+
+        RevokedAccessTokenRepository revokedRepository = Mockito.mock(RevokedAccessTokenRepository.class);
+        AccessTokenRevocationList revocationList = new AccessTokenRevocationList(revokedRepository, Duration.ofMinutes(1));
+
+        filter = new JwtAuthFilter(jwtService, userDetailsService, cache, authMetrics, revocationList, statelessAuth);
+        authorizationHeader = "Bearer " + jwtService.generateAccessToken(
+                BenchmarkFixtures.USER_ID, BenchmarkFixtures.EMAIL, UserRole.PATIENT, 0);
+    }
+
+    @Benchmark
+    public Object authenticatedRequest() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/v1/patients/me");
+        request.setServletPath("/v1/patients/me");
+        request.addHeader(HttpHeaders.AUTHORIZATION, authorizationHeader);
+        try {
+            filter.doFilter(request, new MockHttpServletResponse(), NO_OP_CHAIN);
+            return SecurityContextHolder.getContext().getAuthentication();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.zoe.server.benchmarks;
+
+import com.zoe.server.domain.auth.services.JwtService;
+import com.zoe.server.domain.user.enums.UserRole;
+import io.jsonwebtoken.Claims;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JwtServiceBenchmark {
+
+    @Param({"HS256", "ES256"})
+    public String signingAlgorithm;
+
+    @Param({"false", "true"})
+    public boolean verifiedTokenCache;
+
+    private JwtService jwtService;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtService = BenchmarkFixtures.jwtService(signingAlgorithm, verifiedTokenCache);
+        token = jwtService.generateAccessToken(BenchmarkFixtures.USER_ID, BenchmarkFixtures.EMAIL, UserRole.PATIENT, 0);
+    }
+
+    @Benchmark
+    public String generateAccessToken() {
+        return jwtService.generateAccessToken(BenchmarkFixtures.USER_ID, BenchmarkFixtures.EMAIL, UserRole.PATIENT, 0);
+    }
+
+    @Benchmark
+    public Claims verifyAndParse() {
+        return jwtService.verifyAndParse(token);
+    }
+}
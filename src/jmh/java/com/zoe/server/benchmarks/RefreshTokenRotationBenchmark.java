@@ -0,0 +1,68 @@
+package com.zoe.server.benchmarks;
+
+import com.zoe.server.domain.auth.events.SecurityEventPublisher;
+import com.zoe.server.domain.auth.repositories.InMemoryRefreshTokenStore;
+import com.zoe.server.domain.auth.repositories.SecurityEventRepository;
+import com.zoe.server.domain.auth.services.RefreshTokenCounters;
+import com.zoe.server.domain.auth.services.RefreshTokenService;
+import com.zoe.server.domain.auth.services.RefreshTokenUsageTracker;
+import com.zoe.server.domain.auth.services.TokenSecurityService;
+import com.zoe.server.domain.user.enums.UserRole;
+import com.zoe.server.domain.user.repositories.UserRepository;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency distribution of one refresh-token rotation: lookup, credential check,
+ * claim and replacement. Sample mode reports percentiles, so the p95 budget is
+ * read from {@code p0.95}. The in-memory store and a mocked account lookup leave
+ * out database time; each iteration starts from a fresh store so the token chain
+ * does not grow the heap across the run.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RefreshTokenRotationBenchmark {
+
+    private RefreshTokenService refreshTokenService;
+    private RefreshTokenUsageTracker usageTracker;
+    private SecurityEventPublisher securityEventPublisher;
+    private String refreshToken;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        InMemoryRefreshTokenStore store = new InMemoryRefreshTokenStore(64, "");
+        UserRepository userRepository = Mockito.mock(UserRepository.class);
+        Mockito.when(userRepository.findAuthViewById(BenchmarkFixtures.USER_ID))
+                .thenReturn(Optional.of(BenchmarkFixtures.authView("{noop}password")));
+        usageTracker = new RefreshTokenUsageTracker(store, Mockito.mock(TaskScheduler.class), Integer.MAX_VALUE, Integer.MAX_VALUE);
+        securityEventPublisher = new SecurityEventPublisher(Mockito.mock(SecurityEventRepository.class),
+                8192, SecurityEventPublisher.OverflowPolicy.DROP_OLDEST, 500, Duration.ofSeconds(1), 1);
+        securityEventPublisher.start();
+
+        refreshTokenService = new RefreshTokenService(store, new TokenSecurityService(), new RefreshTokenCounters(store),
+                usageTracker, securityEventPublisher, userRepository);
+        ReflectionTestUtils.setField(refreshTokenService, "refreshTokenExpiration", 604_800_000L);
+        ReflectionTestUtils.setField(refreshTokenService, "maxTokensPerUser", 5);
+        refreshToken = refreshTokenService.createRefreshToken(
+                BenchmarkFixtures.USER_ID, UserRole.PATIENT, BenchmarkFixtures.EMAIL, 0);
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() throws InterruptedException {
+        usageTracker.flush();
+        securityEventPublisher.stop();
+    }
+
+    @Benchmark
+    public String rotate() {
+        refreshToken = refreshTokenService.rotateRefreshToken(refreshToken).token();
+        return refreshToken;
+    }
+}
@@ -0,0 +1,38 @@
+package com.zoe.server.benchmarks;
+
+import com.zoe.server.domain.auth.services.TokenSecurityService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TokenSecurityServiceBenchmark {
+
+    private TokenSecurityService tokenSecurityService;
+    private String refreshToken;
+    private byte[] verifierHash;
+
+    @Setup
+    public void setUp() {
+        tokenSecurityService = new TokenSecurityService();
+        refreshToken = tokenSecurityService.generateSecureToken();
+        verifierHash = tokenSecurityService.hashVerifier(refreshToken);
+    }
+
+    @Benchmark
+    public String generateSecureToken() {
+        return tokenSecurityService.generateSecureToken();
+    }
+
+    @Benchmark
+    public String hashToken() {
+        return tokenSecurityService.hashToken(refreshToken);
+    }
+
+    @Benchmark
+    public boolean verifierMatches() {
+        return tokenSecurityService.verifierMatches(refreshToken, verifierHash);
+    }
+}
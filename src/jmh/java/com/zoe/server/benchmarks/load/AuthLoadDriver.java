@@ -0,0 +1,173 @@
+package com.zoe.server.benchmarks.load;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Closed-loop HTTP load generator for comparing the platform-thread and
+ * virtual-thread modes of a running server. Start the server once per mode, run
+ * {@code ./gradlew loadTest -Pload.label=<mode>} against it, and compare the two
+ * JSON summaries.
+ * <p>
+ * The default path is an authenticated API call, so every request goes through
+ * JWT verification and the principal lookup. Pass an access token as
+ * {@code load.token}, or an account as {@code load.email} and {@code load.password}
+ * to log in once before the run.
+ * <p>
+ * Settings are system properties: {@code load.baseUrl}, {@code load.path},
+ * {@code load.method}, {@code load.body}, {@code load.token}, {@code load.email},
+ * {@code load.password}, {@code load.concurrency}, {@code load.duration} (ISO-8601),
+ * {@code load.label} and {@code load.output}.
+ */
+public final class AuthLoadDriver {
+
+    private static final Pattern ACCESS_TOKEN = Pattern.compile("\"accessToken\"\\s*:\\s*\"([^\"]+)\"");
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = System.getProperty("load.baseUrl", "http://localhost:8080");
+        String path = System.getProperty("load.path", "/v1/psychologists/suggest?q=ana");
+        String method = System.getProperty("load.method", "GET");
+        String body = System.getProperty("load.body", "");
+        String token = System.getProperty("load.token", "");
+        int concurrency = Integer.parseInt(System.getProperty("load.concurrency", "500"));
+        Duration duration = Duration.parse(System.getProperty("load.duration", "PT30S"));
+        String label = System.getProperty("load.label", "unlabelled");
+        String output = System.getProperty("load.output", "");
+
+        HttpClient client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+        if (token.isEmpty() && !System.getProperty("load.email", "").isEmpty()) {
+            token = login(client, baseUrl, System.getProperty("load.email"), System.getProperty("load.password", ""));
+        }
+        if (token.isEmpty()) {
+            System.err.println("Warning: no load.token or load.email given, authenticated paths will answer 401");
+        }
+        HttpRequest.Builder requestBuilder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .method(method, body.isEmpty()
+                        ? HttpRequest.BodyPublishers.noBody()
+                        : HttpRequest.BodyPublishers.ofString(body));
+        if (!body.isEmpty()) {
+            requestBuilder.header("Content-Type", "application/json");
+        }
+        if (!token.isEmpty()) {
+            requestBuilder.header("Authorization", "Bearer " + token);
+        }
+        HttpRequest request = requestBuilder.build();
+
+        AtomicLong errors = new AtomicLong();
+        long deadline = System.nanoTime() + duration.toNanos();
+        List<Future<long[]>> workers = new ArrayList<>(concurrency);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < concurrency; i++) {
+                workers.add(executor.submit(() -> runWorker(client, request, deadline, errors)));
+            }
+        }
+
+        long[] latencies = merge(workers);
+        String summary = summarize(label, concurrency, duration, latencies, errors.get());
+        System.out.println(summary);
+        if (!output.isEmpty()) {
+            Files.writeString(Path.of(output), summary);
+        }
+    }
+
+    private static String login(HttpClient client, String baseUrl, String email, String password) throws Exception {
+        String form = "email=" + URLEncoder.encode(email, StandardCharsets.UTF_8)
+                + "&password=" + URLEncoder.encode(password, StandardCharsets.UTF_8);
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/v1/auth/login"))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(form))
+                .build();
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        Matcher accessToken = ACCESS_TOKEN.matcher(response.body());
+        if (response.statusCode() != 200 || !accessToken.find()) {
+            throw new IllegalStateException("Login as " + email + " failed with status " + response.statusCode());
+        }
+        return accessToken.group(1);
+    }
+
+    private static long[] runWorker(HttpClient client, HttpRequest request, long deadline, AtomicLong errors) {
+        long[] latencies = new long[1024];
+        int count = 0;
+        while (System.nanoTime() < deadline) {
+            long start = System.nanoTime();
+            try {
+                HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                if (response.statusCode() >= 400) {
+                    errors.incrementAndGet();
+                }
+            } catch (IOException e) {
+                errors.incrementAndGet();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = System.nanoTime() - start;
+        }
+        return Arrays.copyOf(latencies, count);
+    }
+
+    private static long[] merge(List<Future<long[]>> workers) throws Exception {
+        List<long[]> parts = new ArrayList<>(workers.size());
+        int total = 0;
+        for (Future<long[]> worker : workers) {
+            long[] part = worker.get();
+            parts.add(part);
+            total += part.length;
+        }
+        long[] merged = new long[total];
+        int offset = 0;
+        for (long[] part : parts) {
+            System.arraycopy(part, 0, merged, offset, part.length);
+            offset += part.length;
+        }
+        Arrays.sort(merged);
+        return merged;
+    }
+
+    private static String summarize(String label, int concurrency, Duration duration, long[] sorted, long errors) {
+        double seconds = duration.toMillis() / 1000.0;
+        return String.format(Locale.ROOT,
+                "{\"label\":\"%s\",\"concurrency\":%d,\"requests\":%d,\"errors\":%d,\"throughputPerSecond\":%.1f,"
+                        + "\"latencyMillis\":{\"p50\":%.2f,\"p95\":%.2f,\"p99\":%.2f,\"max\":%.2f}}",
+                label, concurrency, sorted.length, errors, sorted.length / seconds,
+                percentile(sorted, 0.50), percentile(sorted, 0.95), percentile(sorted, 0.99),
+                sorted.length == 0 ? 0.0 : sorted[sorted.length - 1] / 1_000_000.0);
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0.0;
+        }
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1_000_000.0;
+    }
+
+    private AuthLoadDriver() {
+    }
+}
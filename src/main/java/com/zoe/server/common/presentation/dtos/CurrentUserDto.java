@@ -1,5 +1,6 @@
 package com.zoe.server.common.presentation.dtos;
 
+import com.zoe.server.domain.user.enums.UserRole;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -10,4 +11,5 @@ import lombok.NoArgsConstructor;
 public class CurrentUserDto {
     private Long id;
     private String email;
+    private UserRole role;
 }
@@ -0,0 +1,28 @@
+package com.zoe.server.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+@Configuration
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadConfig {
+
+    @Bean
+    public FilterRegistrationBean<RequestConcurrencyLimitFilter> requestConcurrencyLimitFilter(
+            @Value("${server.virtual-threads.max-concurrent-requests:200}") int maxConcurrentRequests,
+            @Value("${server.virtual-threads.acquire-timeout-ms:2000}") long acquireTimeoutMillis,
+            MeterRegistry meterRegistry) {
+        RequestConcurrencyLimitFilter filter = new RequestConcurrencyLimitFilter(maxConcurrentRequests, acquireTimeoutMillis);
+        Gauge.builder("http.server.requests.permits.available", filter, RequestConcurrencyLimitFilter::availablePermits)
+                .register(meterRegistry);
+        FilterRegistrationBean<RequestConcurrencyLimitFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+}
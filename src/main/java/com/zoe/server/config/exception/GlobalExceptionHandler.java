@@ -0,0 +1,75 @@
+package com.zoe.server.config.exception;
+
+import com.zoe.server.domain.auth.exceptions.AccountLockedException;
+import com.zoe.server.domain.auth.exceptions.AuthCapacityExceededException;
+import com.zoe.server.domain.auth.exceptions.EmailAlreadyRegisteredException;
+import com.zoe.server.domain.auth.exceptions.InvalidRefreshTokenException;
+import com.zoe.server.domain.auth.exceptions.LoginThrottledException;
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@RestControllerAdvice
+public class GlobalExceptionHandler {
+
+    private static final Logger logger = LoggerFactory.getLogger(GlobalExceptionHandler.class);
+
+    @ExceptionHandler(AuthCapacityExceededException.class)
+    public ResponseEntity<Map<String, Object>> handleCapacityExceeded(AuthCapacityExceededException ex,
+                                                                      HttpServletRequest request) {
+        logger.warn("Rejected request: {} {} - {}", request.getMethod(), request.getRequestURI(), ex.getMessage());
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(errorBody(HttpStatus.TOO_MANY_REQUESTS, "Server is busy, please retry later", request));
+    }
+
+    @ExceptionHandler(LoginThrottledException.class)
+    public ResponseEntity<Map<String, Object>> handleLoginThrottled(LoginThrottledException ex,
+                                                                    HttpServletRequest request) {
+        logger.info("Rejected login from {}: {}", request.getRemoteAddr(), ex.getMessage());
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(errorBody(HttpStatus.TOO_MANY_REQUESTS, "Too many failed login attempts, please retry later", request));
+    }
+
+    @ExceptionHandler(AccountLockedException.class)
+    public ResponseEntity<Map<String, Object>> handleAccountLocked(AccountLockedException ex,
+                                                                   HttpServletRequest request) {
+        logger.info("Rejected login from {}: {}", request.getRemoteAddr(), ex.getMessage());
+        return ResponseEntity.status(HttpStatus.LOCKED)
+                .body(errorBody(HttpStatus.LOCKED, "Account is locked", request));
+    }
+
+    @ExceptionHandler(EmailAlreadyRegisteredException.class)
+    public ResponseEntity<Map<String, Object>> handleEmailAlreadyRegistered(EmailAlreadyRegisteredException ex,
+                                                                            HttpServletRequest request) {
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(errorBody(HttpStatus.CONFLICT, ex.getMessage(), request));
+    }
+
+    @ExceptionHandler(InvalidRefreshTokenException.class)
+    public ResponseEntity<Map<String, Object>> handleInvalidRefreshToken(InvalidRefreshTokenException ex,
+                                                                         HttpServletRequest request) {
+        logger.info("Rejected refresh token ({}): {}", ex.getReason(), ex.getMessage());
+        return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                .body(errorBody(HttpStatus.UNAUTHORIZED, "Invalid refresh token", request));
+    }
+
+    private Map<String, Object> errorBody(HttpStatus status, String message, HttpServletRequest request) {
+        Map<String, Object> errorResponse = new HashMap<>();
+        errorResponse.put("status", status.value());
+        errorResponse.put("error", status.getReasonPhrase());
+        errorResponse.put("message", message);
+        errorResponse.put("path", request.getRequestURI());
+        errorResponse.put("timestamp", System.currentTimeMillis());
+        return errorResponse;
+    }
+}
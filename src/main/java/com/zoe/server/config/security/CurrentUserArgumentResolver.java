@@ -2,6 +2,7 @@ package com.zoe.server.config.security;
 
 import com.zoe.server.common.annotation.CurrentUser;
 import com.zoe.server.common.presentation.dtos.CurrentUserDto;
+import com.zoe.server.domain.user.models.CustomUserDetails;
 import org.springframework.core.MethodParameter;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.support.WebDataBinderFactory;
@@ -26,6 +27,10 @@ public class CurrentUserArgumentResolver implements HandlerMethodArgumentResolve
             if(principal instanceof CurrentUserDto){
                 return principal;
             }
+            if(principal instanceof CustomUserDetails userDetails){
+                var account = userDetails.getAccount();
+                return new CurrentUserDto(account.id(), account.email(), account.role());
+            }
         }
         return null;
     }
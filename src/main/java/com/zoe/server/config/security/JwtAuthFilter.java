@@ -1,7 +1,17 @@
 package com.zoe.server.config.security;
 
+import com.zoe.server.common.presentation.dtos.CurrentUserDto;
+import com.zoe.server.domain.auth.metrics.AuthMetrics;
+import com.zoe.server.domain.auth.metrics.AuthOutcome;
+import com.zoe.server.domain.auth.services.AccessTokenRevocationList;
 import com.zoe.server.domain.auth.services.JwtService;
+import com.zoe.server.domain.user.enums.UserRole;
 import com.zoe.server.domain.user.services.CustomUserDetailsService;
+import com.zoe.server.domain.user.services.UserPrincipalCache;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -11,20 +21,35 @@ import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpHeaders;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.List;
 
 public class JwtAuthFilter extends OncePerRequestFilter {
     private static final Logger logger = LoggerFactory.getLogger(JwtAuthFilter.class);
     private final JwtService jwtService;
     private final CustomUserDetailsService userDetailsService;
+    private final UserPrincipalCache principalCache;
+    private final AuthMetrics authMetrics;
+    private final AccessTokenRevocationList revocationList;
+    private final boolean statelessAuth;
 
-    public JwtAuthFilter(JwtService jwtService, CustomUserDetailsService userDetailsService) {
+    public JwtAuthFilter(JwtService jwtService,
+                         CustomUserDetailsService userDetailsService,
+                         UserPrincipalCache principalCache,
+                         AuthMetrics authMetrics,
+                         AccessTokenRevocationList revocationList,
+                         boolean statelessAuth) {
         this.jwtService = jwtService;
         this.userDetailsService = userDetailsService;
+        this.principalCache = principalCache;
+        this.authMetrics = authMetrics;
+        this.revocationList = revocationList;
+        this.statelessAuth = statelessAuth;
     }
     @Override
     protected void doFilterInternal(
@@ -34,36 +59,83 @@ public class JwtAuthFilter extends OncePerRequestFilter {
 
         logger.debug("Processing request: {} {}", request.getMethod(), request.getRequestURI());
         String path = request.getServletPath();
-        if (path.startsWith("/v1/auth/") || path.startsWith("/swagger-ui") || path.startsWith("/v3/api-docs")) {
+        if (path.startsWith("/v1/auth/") || path.startsWith("/.well-known/") || path.startsWith("/swagger-ui") || path.startsWith("/v3/api-docs")) {
             filterChain.doFilter(request, response);
             return;
         }
 
+        Timer.Sample sample = authMetrics.startFilter();
+        AuthOutcome outcome;
+        try {
+            outcome = authenticate(request);
+        } catch (RuntimeException e) {
+            authMetrics.stopFilter(sample, AuthOutcome.of(e));
+            throw e;
+        }
+        authMetrics.stopFilter(sample, outcome);
+        filterChain.doFilter(request, response);
+    }
+
+    private AuthOutcome authenticate(HttpServletRequest request) {
         final String authHeader = request.getHeader(HttpHeaders.AUTHORIZATION);
         logger.debug("Authorization header: {}", authHeader);
 
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
             logger.debug("No valid Authorization header found, proceeding with request");
-            filterChain.doFilter(request, response);
-            return;
+            return AuthOutcome.ANONYMOUS;
         }
 
         final String token = authHeader.substring("Bearer ".length()).trim();
         logger.debug("Processing JWT token");
 
-        if (jwtService.isTokenValid(token)) {
-            final String email = jwtService.extractEmail(token);
-            logger.debug("Valid token for user: {}", email);
-            UserDetails userDetails = userDetailsService.loadUserByUsername(email);
-            UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
-                    userDetails,
-                    null,
-                    userDetails.getAuthorities()
-            );
-            SecurityContextHolder.getContext().setAuthentication(authentication);
-        } else {
+        Claims claims;
+        try {
+            claims = jwtService.verifyAndParse(token);
+        } catch (ExpiredJwtException e) {
+            logger.debug("Expired token");
+            return AuthOutcome.EXPIRED;
+        } catch (JwtException e) {
             logger.debug("Invalid token");
+            return AuthOutcome.INVALID;
         }
-        filterChain.doFilter(request, response);
+        if (revocationList.isRevoked(claims.getId(), claims.getExpiration())) {
+            logger.debug("Revoked token");
+            return AuthOutcome.REVOKED;
+        }
+        if (statelessAuth) {
+            authenticateFromClaims(claims);
+        } else {
+            authenticateFromUserDetails(claims.getSubject());
+        }
+        return AuthOutcome.SUCCESS;
+    }
+
+    private void authenticateFromClaims(Claims claims) {
+        Long userId = claims.get(JwtService.CLAIM_USER_ID, Long.class);
+        String role = claims.get(JwtService.CLAIM_ROLE, String.class);
+        if (userId == null || role == null) {
+            logger.debug("Token carries no identity claims, falling back to user lookup");
+            authenticateFromUserDetails(claims.getSubject());
+            return;
+        }
+        CurrentUserDto principal = new CurrentUserDto(userId, claims.getSubject(), UserRole.valueOf(role));
+        logger.debug("Valid stateless token for user: {}", principal.getEmail());
+        UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+                principal,
+                null,
+                List.of(new SimpleGrantedAuthority("ROLE_" + role))
+        );
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+    }
+
+    private void authenticateFromUserDetails(String email) {
+        logger.debug("Valid token for user: {}", email);
+        UserDetails userDetails = principalCache.get(email, userDetailsService::loadUserByUsername);
+        UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+                userDetails,
+                null,
+                userDetails.getAuthorities()
+        );
+        SecurityContextHolder.getContext().setAuthentication(authentication);
     }
 }
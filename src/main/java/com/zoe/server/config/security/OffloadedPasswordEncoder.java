@@ -0,0 +1,43 @@
+package com.zoe.server.config.security;
+
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Runs the delegate encoder on the {@link PasswordHashingExecutor} instead of
+ * the calling request thread.
+ */
+public class OffloadedPasswordEncoder implements PasswordEncoder {
+    private final PasswordEncoder delegate;
+    private final PasswordHashingExecutor executor;
+
+    public OffloadedPasswordEncoder(PasswordEncoder delegate, PasswordHashingExecutor executor) {
+        this.delegate = delegate;
+        this.executor = executor;
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return executor.call(() -> delegate.encode(rawPassword));
+    }
+
+    /**
+     * Queues the hash without waiting for it, for callers hashing many passwords
+     * at once. Throws {@link com.zoe.server.domain.auth.exceptions.AuthCapacityExceededException}
+     * when the queue is full.
+     */
+    public CompletableFuture<String> encodeAsync(CharSequence rawPassword) {
+        return executor.submit(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return executor.call(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+}
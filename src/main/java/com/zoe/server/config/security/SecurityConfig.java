@@ -2,22 +2,36 @@ package com.zoe.server.config.security;
 
 import com.zoe.server.config.security.exception.CustomAccessDeniedHandler;
 import com.zoe.server.config.security.exception.CustomAuthenticationEntryPoint;
+import com.zoe.server.domain.auth.metrics.AuthMetrics;
+import com.zoe.server.domain.auth.services.AccessTokenRevocationList;
 import com.zoe.server.domain.auth.services.JwtService;
+import com.zoe.server.domain.user.enums.UserRole;
 import com.zoe.server.domain.user.services.CustomUserDetailsService;
+import com.zoe.server.domain.user.services.UserPrincipalCache;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
+import org.springframework.boot.actuate.health.HealthEndpoint;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpMethod;
 import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.cors.CorsConfiguration;
@@ -26,6 +40,7 @@ import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 import org.springframework.web.servlet.config.annotation.ViewControllerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
+import java.util.ArrayList;
 import java.util.List;
 
 @Configuration
@@ -38,9 +53,44 @@ public class SecurityConfig {
         this.accessDeniedHandler = accessDeniedHandler;
     }
     private static final Logger logger = LoggerFactory.getLogger(SecurityConfig.class);
+    private static final String ACTUATOR_ROLE = "ACTUATOR";
     private final CustomAuthenticationEntryPoint authenticationEntryPoint;
     private final CustomAccessDeniedHandler accessDeniedHandler;
 
+    /**
+     * Actuator endpoints other than health are for monitoring only: they take HTTP
+     * Basic credentials from {@code security.actuator.*} and ignore user JWTs, so
+     * neither anonymous callers nor logged-in patients can read them. Without a
+     * configured password they are closed.
+     */
+    @Bean
+    @Order(1)
+    public SecurityFilterChain actuatorFilterChain(
+            HttpSecurity http,
+            @Value("${security.actuator.username:monitoring}") String username,
+            @Value("${security.actuator.password:}") String password) throws Exception {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder();
+        List<UserDetails> users = new ArrayList<>();
+        if (password.isBlank()) {
+            logger.warn("security.actuator.password is not configured; actuator endpoints other than health are closed");
+        } else {
+            users.add(User.withUsername(username).password(encoder.encode(password)).roles(ACTUATOR_ROLE).build());
+        }
+        DaoAuthenticationProvider provider = new DaoAuthenticationProvider(new InMemoryUserDetailsManager(users));
+        provider.setPasswordEncoder(encoder);
+        return http
+                .securityMatcher(EndpointRequest.toAnyEndpoint())
+                .csrf(AbstractHttpConfigurer::disable)
+                .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                .authenticationManager(new ProviderManager(provider))
+                .authorizeHttpRequests(auth ->
+                        auth.requestMatchers(EndpointRequest.to(HealthEndpoint.class)).permitAll()
+                                .anyRequest().hasRole(ACTUATOR_ROLE)
+                )
+                .httpBasic(Customizer.withDefaults())
+                .build();
+    }
+
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http, JwtAuthFilter jwtAuthFilter) throws Exception {
         return http
@@ -48,7 +98,9 @@ public class SecurityConfig {
                 .csrf(AbstractHttpConfigurer::disable)
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(auth ->
-                        auth.requestMatchers("/v1/auth/**", "/v3/api-docs/**", "/swagger-ui/**", "/swagger-ui.html", "/").permitAll()
+                        auth.requestMatchers("/v1/auth/**", "/.well-known/**", "/v3/api-docs/**", "/swagger-ui/**", "/swagger-ui.html", "/").permitAll()
+                                .requestMatchers(HttpMethod.GET, "/v1/psychologists/search").permitAll()
+                                .requestMatchers(HttpMethod.POST, "/v1/patients/import").hasRole(UserRole.PSYCHOLOGIST.name())
                                 .anyRequest().authenticated()
                 )
                 .exceptionHandling(exceptionHandling -> exceptionHandling
@@ -60,8 +112,19 @@ public class SecurityConfig {
     }
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public OffloadedPasswordEncoder passwordEncoder(MeterRegistry meterRegistry, PasswordHashingExecutor passwordHashingExecutor) {
+        return new OffloadedPasswordEncoder(
+                new TimedPasswordEncoder(new BCryptPasswordEncoder(), meterRegistry),
+                passwordHashingExecutor);
+    }
+
+    @Bean
+    public PasswordHashingExecutor passwordHashingExecutor(
+            @Value("${security.password-hashing.threads:0}") int threads,
+            @Value("${security.password-hashing.queue-capacity:64}") int queueCapacity,
+            @Value("${security.password-hashing.retry-after-seconds:1}") long retryAfterSeconds) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        return new PasswordHashingExecutor(poolSize, queueCapacity, retryAfterSeconds);
     }
 
     @Bean
@@ -79,8 +142,13 @@ public class SecurityConfig {
     }
 
     @Bean
-    public JwtAuthFilter jwtAuthFilter(JwtService jwtService, CustomUserDetailsService userDetailsService) {
-        return new JwtAuthFilter(jwtService, userDetailsService);
+    public JwtAuthFilter jwtAuthFilter(JwtService jwtService,
+                                       CustomUserDetailsService userDetailsService,
+                                       UserPrincipalCache principalCache,
+                                       AuthMetrics authMetrics,
+                                       AccessTokenRevocationList revocationList,
+                                       @Value("${jwt.stateless-auth.enabled:false}") boolean statelessAuth) {
+        return new JwtAuthFilter(jwtService, userDetailsService, principalCache, authMetrics, revocationList, statelessAuth);
     }
     @Bean
     public CorsConfigurationSource corsConfigurationSource() {
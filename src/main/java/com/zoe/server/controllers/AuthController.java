@@ -2,6 +2,8 @@ package com.zoe.server.controllers;
 
 import com.zoe.server.domain.auth.dtos.*;
 import com.zoe.server.domain.auth.services.AuthService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -29,9 +31,9 @@ public class AuthController {
         return ResponseEntity.ok(response);
     }
     @PostMapping("/login")
-    public ResponseEntity<AuthResponseDto> login(AuthRequestDto request) {
+    public ResponseEntity<AuthResponseDto> login(AuthRequestDto request, HttpServletRequest servletRequest) {
 
-        AuthResponseDto response = authService.login(request);
+        AuthResponseDto response = authService.login(request, servletRequest.getRemoteAddr());
         return ResponseEntity.ok(response);
     }
     @PostMapping("/refresh-token")
@@ -40,4 +42,14 @@ public class AuthController {
         AuthResponseDto response = authService.refreshToken(refreshToken);
         return ResponseEntity.ok(response);
     }
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(
+            @RequestParam("refreshToken") String refreshToken,
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization) {
+        String accessToken = authorization != null && authorization.startsWith("Bearer ")
+                ? authorization.substring("Bearer ".length()).trim()
+                : null;
+        authService.logout(refreshToken, accessToken);
+        return ResponseEntity.noContent().build();
+    }
 }
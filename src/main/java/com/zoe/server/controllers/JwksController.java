@@ -0,0 +1,34 @@
+package com.zoe.server.controllers;
+
+import com.zoe.server.domain.auth.services.JwtKeyRing;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+public class JwksController {
+    private final JwtKeyRing keyRing;
+    private final Duration maxAge;
+
+    public JwksController(JwtKeyRing keyRing,
+                          @Value("${jwt.jwks.max-age:PT10M}") Duration maxAge) {
+        this.keyRing = keyRing;
+        this.maxAge = maxAge;
+    }
+
+    @GetMapping("/.well-known/jwks.json")
+    public ResponseEntity<Map<String, Object>> jwks() {
+        List<Map<String, Object>> keys = keyRing.publishedKeys().stream()
+                .map(JwtKeyRing::toJwk)
+                .toList();
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(maxAge).cachePublic())
+                .body(Map.of("keys", keys));
+    }
+}
@@ -0,0 +1,57 @@
+package com.zoe.server.controllers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zoe.server.domain.patient.dtos.PatientImportResultDto;
+import com.zoe.server.domain.patient.enums.PatientImportFormat;
+import com.zoe.server.domain.patient.services.PatientImportService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+@RestController
+@RequestMapping("/v1/patients")
+public class PatientImportController {
+    private final PatientImportService patientImportService;
+    private final ObjectMapper objectMapper;
+
+    public PatientImportController(PatientImportService patientImportService, ObjectMapper objectMapper) {
+        this.patientImportService = patientImportService;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Streams one NDJSON result per input row back while the import runs.
+     */
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson"}, produces = "application/x-ndjson")
+    public void importPatients(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                               HttpServletRequest request,
+                               HttpServletResponse response) throws IOException {
+        PatientImportFormat format = PatientImportFormat.fromContentType(contentType);
+        if (request.getCharacterEncoding() == null) {
+            request.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        }
+        response.setContentType(PatientImportFormat.NDJSON.mediaType());
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        PrintWriter out = response.getWriter();
+        patientImportService.importPatients(request.getReader(), format, results -> write(out, results));
+    }
+
+    private void write(PrintWriter out, List<PatientImportResultDto> results) {
+        try {
+            for (PatientImportResultDto result : results) {
+                out.write(objectMapper.writeValueAsString(result));
+                out.write('\n');
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        out.flush();
+    }
+}
@@ -0,0 +1,44 @@
+package com.zoe.server.controllers;
+
+import com.zoe.server.domain.psychologist.dtos.PsychologistSearchCriteria;
+import com.zoe.server.domain.psychologist.dtos.PsychologistSearchResponseDto;
+import com.zoe.server.domain.psychologist.dtos.PsychologistSuggestionDto;
+import com.zoe.server.domain.psychologist.services.PsychologistDirectoryService;
+import com.zoe.server.domain.psychologist.services.PsychologistSuggestIndex;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/v1/psychologists")
+public class PsychologistController {
+    private static final int MAX_SUGGESTIONS = 50;
+
+    private final PsychologistDirectoryService directoryService;
+    private final PsychologistSuggestIndex suggestIndex;
+
+    public PsychologistController(PsychologistDirectoryService directoryService, PsychologistSuggestIndex suggestIndex) {
+        this.directoryService = directoryService;
+        this.suggestIndex = suggestIndex;
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<PsychologistSearchResponseDto> search(
+            @RequestParam(required = false) String state,
+            @RequestParam(required = false) String city,
+            @RequestParam(required = false) String zip,
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "20") int limit) {
+        int pageSize = Math.max(1, Math.min(limit, PsychologistDirectoryService.MAX_PAGE_SIZE));
+        PsychologistSearchCriteria criteria = PsychologistSearchCriteria.of(state, city, zip, after, pageSize);
+        return ResponseEntity.ok(directoryService.search(criteria));
+    }
+
+    @GetMapping("/suggest")
+    public ResponseEntity<List<PsychologistSuggestionDto>> suggest(
+            @RequestParam("q") String query,
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(suggestIndex.suggest(query, Math.min(limit, MAX_SUGGESTIONS)));
+    }
+}
@@ -0,0 +1,21 @@
+package com.zoe.server.domain.auth.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Refresh-token counts. Every token falls into exactly one of active, expired or
+ * revoked: expired wins over revoked, and revoked includes compromised tokens.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class TokenStatsDto {
+    private long totalTokens;
+    private long activeTokens;
+    private long expiredTokens;
+    private long revokedTokens;
+}
@@ -0,0 +1,23 @@
+package com.zoe.server.domain.auth.events;
+
+import java.time.Instant;
+
+/**
+ * One entry of the security event log. {@code subject} is the email the event is
+ * about when known, which matters for failed logins of unknown accounts.
+ */
+public record SecurityEvent(SecurityEventType type,
+                            Long userId,
+                            String subject,
+                            String sourceIp,
+                            String detail,
+                            Instant occurredAt) {
+
+    public static SecurityEvent of(SecurityEventType type, Long userId, String subject, String detail) {
+        return of(type, userId, subject, null, detail);
+    }
+
+    public static SecurityEvent of(SecurityEventType type, Long userId, String subject, String sourceIp, String detail) {
+        return new SecurityEvent(type, userId, subject, sourceIp, detail, Instant.now());
+    }
+}
@@ -0,0 +1,214 @@
+package com.zoe.server.domain.auth.events;
+
+import com.zoe.server.domain.auth.repositories.SecurityEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Persists {@link SecurityEvent}s to {@code security_events} off the request path.
+ * <p>
+ * {@link #publish} only appends to a lock-free ring buffer and never blocks or
+ * touches the database. A single writer thread drains the buffer in batches of up
+ * to {@code security-events.batch-size}, waking up when a batch is full or after
+ * {@code security-events.flush-interval}. When the database is slow the buffer
+ * absorbs the backlog; once it is full, the overflow policy decides which event
+ * is lost. A batch that still fails after {@code security-events.max-write-attempts}
+ * is dropped, and so are single rows the database rejects. Every drop is counted
+ * in {@code auth.security-events.dropped}.
+ */
+@Component
+public class SecurityEventPublisher implements MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(SecurityEventPublisher.class);
+
+    public enum OverflowPolicy {
+        /** Reject the event being published; what is already buffered is kept. */
+        DROP_NEWEST,
+        /** Evict the oldest buffered event to make room for the new one. */
+        DROP_OLDEST
+    }
+
+    private final SecurityEventRepository securityEventRepository;
+    private final SecurityEventRingBuffer buffer;
+    private final OverflowPolicy overflowPolicy;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final int maxWriteAttempts;
+    private volatile Thread writer;
+    private volatile boolean running;
+    private Counter publishedCounter;
+    private Counter overflowCounter;
+    private Counter writeFailedCounter;
+    private Counter writtenCounter;
+    private DistributionSummary batchSizes;
+    private Timer writeTimer;
+
+    public SecurityEventPublisher(SecurityEventRepository securityEventRepository,
+                                  @Value("${security-events.buffer-capacity:8192}") int bufferCapacity,
+                                  @Value("${security-events.overflow-policy:DROP_NEWEST}") OverflowPolicy overflowPolicy,
+                                  @Value("${security-events.batch-size:500}") int batchSize,
+                                  @Value("${security-events.flush-interval:PT1S}") Duration flushInterval,
+                                  @Value("${security-events.max-write-attempts:3}") int maxWriteAttempts) {
+        this.securityEventRepository = securityEventRepository;
+        this.buffer = new SecurityEventRingBuffer(bufferCapacity);
+        this.overflowPolicy = overflowPolicy;
+        this.batchSize = batchSize;
+        this.flushIntervalNanos = flushInterval.toNanos();
+        this.maxWriteAttempts = maxWriteAttempts;
+    }
+
+    /**
+     * Buffers the event, or, inside a transaction, buffers it once the transaction
+     * commits, so a rolled-back change is never logged as having happened.
+     */
+    public void publish(SecurityEvent event) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueue(event);
+                }
+            });
+            return;
+        }
+        enqueue(event);
+    }
+
+    private void enqueue(SecurityEvent event) {
+        if (publishedCounter != null) {
+            publishedCounter.increment();
+        }
+        if (!buffer.offer(event) && !handleOverflow(event)) {
+            return;
+        }
+        if (buffer.size() >= batchSize) {
+            Thread current = writer;
+            if (current != null) {
+                LockSupport.unpark(current);
+            }
+        }
+    }
+
+    private boolean handleOverflow(SecurityEvent event) {
+        if (overflowPolicy == OverflowPolicy.DROP_OLDEST) {
+            // Bounded retries: other producers may take the freed slot first.
+            for (int attempt = 0; attempt < 3; attempt++) {
+                if (buffer.poll() != null && overflowCounter != null) {
+                    overflowCounter.increment();
+                }
+                if (buffer.offer(event)) {
+                    return true;
+                }
+            }
+        }
+        if (overflowCounter != null) {
+            overflowCounter.increment();
+        }
+        return false;
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        writer = Thread.ofPlatform()
+                .name("security-event-writer")
+                .daemon(true)
+                .start(this::runWriter);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        Thread current = writer;
+        if (current != null) {
+            LockSupport.unpark(current);
+            current.join(TimeUnit.SECONDS.toMillis(10));
+        }
+    }
+
+    private void runWriter() {
+        List<SecurityEvent> batch = new ArrayList<>(batchSize);
+        while (running) {
+            if (buffer.size() < batchSize) {
+                LockSupport.parkNanos(this, flushIntervalNanos);
+            }
+            drainAndWrite(batch);
+        }
+        // Flush what is left on shutdown.
+        while (buffer.size() > 0) {
+            drainAndWrite(batch);
+        }
+    }
+
+    private void drainAndWrite(List<SecurityEvent> batch) {
+        batch.clear();
+        if (buffer.drainTo(batch, batchSize) == 0) {
+            return;
+        }
+        for (int attempt = 1; attempt <= maxWriteAttempts; attempt++) {
+            long start = System.nanoTime();
+            try {
+                int rejected = securityEventRepository.insertBatch(batch);
+                if (writeTimer != null) {
+                    writeTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                    batchSizes.record(batch.size());
+                    writtenCounter.increment(batch.size() - rejected);
+                    writeFailedCounter.increment(rejected);
+                }
+                return;
+            } catch (RuntimeException e) {
+                logger.warn("Failed to write {} security events (attempt {}/{})",
+                        batch.size(), attempt, maxWriteAttempts, e);
+                if (attempt < maxWriteAttempts) {
+                    LockSupport.parkNanos(this, flushIntervalNanos * attempt);
+                }
+            }
+        }
+        logger.error("Dropped {} security events after {} failed write attempts", batch.size(), maxWriteAttempts);
+        if (writeFailedCounter != null) {
+            writeFailedCounter.increment(batch.size());
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("auth.security-events.buffered", buffer, SecurityEventRingBuffer::size)
+                .register(registry);
+        Gauge.builder("auth.security-events.capacity", buffer, SecurityEventRingBuffer::capacity)
+                .register(registry);
+        publishedCounter = Counter.builder("auth.security-events.published")
+                .register(registry);
+        writtenCounter = Counter.builder("auth.security-events.written")
+                .register(registry);
+        overflowCounter = Counter.builder("auth.security-events.dropped")
+                .tag("reason", "overflow")
+                .tag("policy", overflowPolicy.name().toLowerCase())
+                .register(registry);
+        writeFailedCounter = Counter.builder("auth.security-events.dropped")
+                .tag("reason", "write_failed")
+                .tag("policy", overflowPolicy.name().toLowerCase())
+                .register(registry);
+        batchSizes = DistributionSummary.builder("auth.security-events.batch.size")
+                .register(registry);
+        writeTimer = Timer.builder("auth.security-events.write")
+                .register(registry);
+    }
+}
@@ -0,0 +1,13 @@
+package com.zoe.server.domain.auth.events;
+
+public enum SecurityEventType {
+    LOGIN_SUCCEEDED,
+    LOGIN_FAILED,
+    ACCOUNT_LOCKED,
+    LOGOUT,
+    REFRESH_TOKEN_ROTATED,
+    REFRESH_TOKEN_REVOKED,
+    REFRESH_TOKENS_REVOKED_FOR_USER,
+    REFRESH_TOKEN_REUSE_DETECTED,
+    TOKEN_FAMILY_COMPROMISED
+}
@@ -0,0 +1,12 @@
+package com.zoe.server.domain.auth.exceptions;
+
+/**
+ * The account is locked with no end date, so there is no point telling the
+ * client when to retry.
+ */
+public class AccountLockedException extends AuthenticationException {
+
+    public AccountLockedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,19 @@
+package com.zoe.server.domain.auth.exceptions;
+
+import lombok.Getter;
+
+@Getter
+public class AuthCapacityExceededException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public AuthCapacityExceededException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public AuthCapacityExceededException(String message, long retryAfterSeconds, Throwable cause) {
+        super(message, cause);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
@@ -0,0 +1,8 @@
+package com.zoe.server.domain.auth.exceptions;
+
+public class EmailAlreadyRegisteredException extends RuntimeException {
+
+    public EmailAlreadyRegisteredException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
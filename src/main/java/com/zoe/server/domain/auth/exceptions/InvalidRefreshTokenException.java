@@ -0,0 +1,29 @@
+package com.zoe.server.domain.auth.exceptions;
+
+import lombok.Getter;
+
+@Getter
+public class InvalidRefreshTokenException extends AuthenticationException {
+
+    public enum Reason {
+        MALFORMED,
+        NOT_FOUND,
+        EXPIRED,
+        REVOKED,
+        COMPROMISED,
+        LOCKED,
+        DISABLED
+    }
+
+    private final Reason reason;
+
+    public InvalidRefreshTokenException(Reason reason, String message) {
+        super(message);
+        this.reason = reason;
+    }
+
+    public InvalidRefreshTokenException(Reason reason, String message, Throwable cause) {
+        super(message, cause);
+        this.reason = reason;
+    }
+}
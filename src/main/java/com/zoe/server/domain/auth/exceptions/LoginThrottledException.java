@@ -0,0 +1,14 @@
+package com.zoe.server.domain.auth.exceptions;
+
+import lombok.Getter;
+
+@Getter
+public class LoginThrottledException extends AuthenticationException {
+
+    private final long retryAfterSeconds;
+
+    public LoginThrottledException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
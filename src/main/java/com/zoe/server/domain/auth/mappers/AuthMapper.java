@@ -6,35 +6,31 @@ import com.zoe.server.domain.auth.dtos.RegisterResponseDto;
 import com.zoe.server.domain.user.enums.UserRole;
 import com.zoe.server.domain.user.models.User;
 import com.zoe.server.domain.user.models.UserCredentials;
+import org.mapstruct.Context;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.crypto.password.PasswordEncoder;
 
 import java.time.LocalDateTime;
 
 @Mapper(componentModel = "spring", imports = {UserRole.class})
 public abstract class AuthMapper {
 
-    @Autowired
-    protected PasswordEncoder passwordEncoder;
-
     @Mapping(target = "id", ignore = true)
-    @Mapping(target = "userCredentials", expression = "java(buildUserCredentials(request.getEmail(), request.getPassword(), UserRole.PSYCHOLOGIST))")
+    @Mapping(target = "userCredentials", expression = "java(buildUserCredentials(request.getEmail(), passwordHash, UserRole.PSYCHOLOGIST))")
     @Mapping(target = "patient", ignore = true)
     @Mapping(target = "psychologist", source = ".")
     @Mapping(target = "psychologist.id", ignore = true)
     @Mapping(target = "psychologist.user", ignore = true)
-    public abstract User toPsychologistUser(RegisterPsychologistRequestDto request);
+    public abstract User toPsychologistUser(RegisterPsychologistRequestDto request, @Context String passwordHash);
 
     @Mapping(target = "id", ignore = true)
-    @Mapping(target = "userCredentials", expression = "java(buildUserCredentials(request.getEmail(), request.getPassword(), UserRole.PATIENT))")
+    @Mapping(target = "userCredentials", expression = "java(buildUserCredentials(request.getEmail(), passwordHash, UserRole.PATIENT))")
     @Mapping(target = "psychologist", ignore = true)
     @Mapping(target = "patient", source = ".")
     @Mapping(target = "patient.id", ignore = true)
     @Mapping(target = "patient.cpf", ignore = true)
     @Mapping(target = "patient.user", ignore = true)
-    public abstract User toPatientUser(RegisterPatientRequestDto request);
+    public abstract User toPatientUser(RegisterPatientRequestDto request, @Context String passwordHash);
 
     public RegisterResponseDto toRegisterResponse(User user) {
         return new RegisterResponseDto(
@@ -42,10 +38,10 @@ public abstract class AuthMapper {
                 user.getUserCredentials().getUserRole()
         );
     }
-    protected UserCredentials buildUserCredentials(String email, String password, UserRole role) {
+    protected UserCredentials buildUserCredentials(String email, String passwordHash, UserRole role) {
         UserCredentials credentials = new UserCredentials();
         credentials.setEmail(email);
-        credentials.setPasswordHash(passwordEncoder.encode(password));
+        credentials.setPasswordHash(passwordHash);
         credentials.setUserRole(role);
         credentials.setActive(true);
         credentials.setLocked(false);
@@ -0,0 +1,91 @@
+package com.zoe.server.domain.auth.metrics;
+
+import com.zoe.server.domain.user.enums.UserRole;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Supplier;
+
+/**
+ * Latency timers for the authentication flows, tagged by outcome. Every timer
+ * publishes a percentile histogram so p99 can be aggregated across nodes.
+ */
+@Component
+public class AuthMetrics {
+
+    public static final String LOGIN = "auth.login";
+    public static final String REFRESH = "auth.refresh";
+    public static final String REGISTER = "auth.register";
+    public static final String FILTER = "auth.filter";
+    public static final String REGISTER_CONNECTION_HOLD = "auth.register.connection-hold";
+    public static final String STATEMENT = "auth.db.statement";
+
+    private final MeterRegistry meterRegistry;
+
+    public AuthMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public <T> T timeLogin(Supplier<T> action) {
+        return time(LOGIN, Tags.empty(), action);
+    }
+
+    public <T> T timeRefresh(Supplier<T> action) {
+        return time(REFRESH, Tags.empty(), action);
+    }
+
+    public <T> T timeRegistration(UserRole role, Supplier<T> action) {
+        return time(REGISTER, roleTag(role), action);
+    }
+
+    /**
+     * Times the part of a registration that holds a pooled connection, i.e. the
+     * write transaction without the password hashing before it.
+     */
+    public <T> T timeRegistrationConnectionHold(UserRole role, Supplier<T> action) {
+        return time(REGISTER_CONNECTION_HOLD, roleTag(role), action);
+    }
+
+    /**
+     * Times a JdbcTemplate statement of the auth flows. Spring Data's repository
+     * metrics only see calls through repository interfaces, so these would
+     * otherwise not be measured at all.
+     */
+    public <T> T timeStatement(String operation, Supplier<T> action) {
+        return time(STATEMENT, Tags.of("operation", operation), action);
+    }
+
+    public Timer.Sample startFilter() {
+        return Timer.start(meterRegistry);
+    }
+
+    public void stopFilter(Timer.Sample sample, AuthOutcome outcome) {
+        sample.stop(timer(FILTER, Tags.empty(), outcome));
+    }
+
+    private <T> T time(String name, Tags tags, Supplier<T> action) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            T result = action.get();
+            sample.stop(timer(name, tags, AuthOutcome.SUCCESS));
+            return result;
+        } catch (RuntimeException e) {
+            sample.stop(timer(name, tags, AuthOutcome.of(e)));
+            throw e;
+        }
+    }
+
+    private Timer timer(String name, Tags tags, AuthOutcome outcome) {
+        return Timer.builder(name)
+                .tags(tags)
+                .tag("outcome", outcome.tag())
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private static Tags roleTag(UserRole role) {
+        return Tags.of("role", role.name().toLowerCase());
+    }
+}
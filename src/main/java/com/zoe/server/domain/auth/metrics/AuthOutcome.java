@@ -0,0 +1,65 @@
+package com.zoe.server.domain.auth.metrics;
+
+import com.zoe.server.domain.auth.exceptions.AccountLockedException;
+import com.zoe.server.domain.auth.exceptions.EmailAlreadyRegisteredException;
+import com.zoe.server.domain.auth.exceptions.InvalidCredentialsException;
+import com.zoe.server.domain.auth.exceptions.InvalidRefreshTokenException;
+import com.zoe.server.domain.auth.exceptions.LoginThrottledException;
+import org.springframework.security.authentication.DisabledException;
+import org.springframework.security.authentication.LockedException;
+
+public enum AuthOutcome {
+    SUCCESS("success"),
+    BAD_CREDENTIALS("bad_credentials"),
+    INVALID("invalid"),
+    NOT_FOUND("not_found"),
+    EXPIRED("expired"),
+    REVOKED("revoked"),
+    COMPROMISED("compromised"),
+    LOCKED("locked"),
+    DISABLED("disabled"),
+    CONFLICT("conflict"),
+    ANONYMOUS("anonymous"),
+    ERROR("error");
+
+    private final String tag;
+
+    AuthOutcome(String tag) {
+        this.tag = tag;
+    }
+
+    public String tag() {
+        return tag;
+    }
+
+    public static AuthOutcome of(Throwable failure) {
+        if (failure instanceof InvalidCredentialsException) {
+            return BAD_CREDENTIALS;
+        }
+        if (failure instanceof InvalidRefreshTokenException invalidToken) {
+            return switch (invalidToken.getReason()) {
+                case MALFORMED -> INVALID;
+                case NOT_FOUND -> NOT_FOUND;
+                case EXPIRED -> EXPIRED;
+                case REVOKED -> REVOKED;
+                case COMPROMISED -> COMPROMISED;
+                case LOCKED -> LOCKED;
+                case DISABLED -> DISABLED;
+            };
+        }
+        if (failure instanceof LockedException || failure instanceof LoginThrottledException
+                || failure instanceof AccountLockedException) {
+            return LOCKED;
+        }
+        if (failure instanceof DisabledException) {
+            return DISABLED;
+        }
+        if (failure instanceof EmailAlreadyRegisteredException) {
+            return CONFLICT;
+        }
+        if (failure instanceof IllegalArgumentException) {
+            return INVALID;
+        }
+        return ERROR;
+    }
+}
@@ -0,0 +1,44 @@
+package com.zoe.server.domain.auth.metrics;
+
+import com.zoe.server.domain.auth.dtos.TokenStatsDto;
+import com.zoe.server.domain.auth.services.RefreshTokenCounters;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * {@code /actuator/refreshtokens}: refresh-token counts served from
+ * {@link RefreshTokenCounters}. A write forces a reconcile against the store.
+ */
+@Component
+@Endpoint(id = "refreshtokens")
+public class RefreshTokenStatsEndpoint {
+
+    private final RefreshTokenCounters refreshTokenCounters;
+
+    public RefreshTokenStatsEndpoint(RefreshTokenCounters refreshTokenCounters) {
+        this.refreshTokenCounters = refreshTokenCounters;
+    }
+
+    @ReadOperation
+    public Map<String, Object> stats() {
+        TokenStatsDto stats = refreshTokenCounters.snapshot();
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("totalTokens", stats.getTotalTokens());
+        body.put("activeTokens", stats.getActiveTokens());
+        body.put("expiredTokens", stats.getExpiredTokens());
+        body.put("revokedTokens", stats.getRevokedTokens());
+        body.put("reconciledAt", refreshTokenCounters.reconciledAt());
+        return body;
+    }
+
+    @WriteOperation
+    public Map<String, Object> reconcile() {
+        refreshTokenCounters.reconcile();
+        return stats();
+    }
+}
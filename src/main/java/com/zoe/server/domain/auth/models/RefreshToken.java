@@ -13,20 +13,30 @@ import java.time.Instant;
 @Entity
 @Table(name = "refresh_tokens", indexes = {
         @Index(name = "idx_refresh_token_hash", columnList = "tokenHash"),
-        @Index(name = "idx_refresh_token_user", columnList = "userId"),
+        @Index(name = "idx_refresh_token_selector", columnList = "selector"),
+        @Index(name = "idx_refresh_token_user_active", columnList = "userId, userRole, revokedAt, expiresAt, createdAt"),
         @Index(name = "idx_refresh_token_expires", columnList = "expiresAt"),
-        @Index(name = "idx_refresh_token_revoked", columnList = "revokedAt")
+        @Index(name = "idx_refresh_token_revoked", columnList = "revokedAt"),
+        @Index(name = "idx_refresh_token_family", columnList = "familyId")
 })
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
 public class RefreshToken {
+    public static final String ROTATED_REASON = "Token rotated";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "refresh_tokens_seq")
+    @SequenceGenerator(name = "refresh_tokens_seq", sequenceName = "refresh_tokens_seq", allocationSize = 50)
     private Long id;
-    @Column(name = "token_hash", nullable = false, length = 64)
+    // Only set for tokens issued before the selector.verifier format.
+    @Column(name = "token_hash", length = 64)
     private String tokenHash;
+    @Column(name = "selector", length = 16)
+    private String selector;
+    @Column(name = "verifier_hash", length = 32)
+    private byte[] verifierHash;
     @Column(name = "user_id", nullable = false)
     private Long userId;
     @Column(name = "user_role", nullable = false, length = 20)
@@ -38,6 +48,11 @@ public class RefreshToken {
     private Instant revokedAt;
     @Column(name = "revoked_reason", length = 100)
     private String revokedReason;
+    // Copied from the user's credentials so a refresh needs no user lookup.
+    @Column(name = "email")
+    private String email;
+    @Column(name = "credential_version")
+    private Integer credentialVersion;
     @Column(name = "family_id", nullable = true)
     private String familyId;
     @Column(name = "is_compromised", nullable = false)
@@ -0,0 +1,15 @@
+package com.zoe.server.domain.auth.models;
+
+import java.time.Instant;
+
+/**
+ * Uses of one refresh token accumulated since the last flush. {@code expiresAt}
+ * is carried along so the update can be routed to the token's partition.
+ */
+public record RefreshTokenUsage(Long tokenId, Instant expiresAt, int uses, Instant lastUsedAt) {
+
+    public RefreshTokenUsage merge(RefreshTokenUsage other) {
+        Instant latest = lastUsedAt.isAfter(other.lastUsedAt) ? lastUsedAt : other.lastUsedAt;
+        return new RefreshTokenUsage(tokenId, expiresAt, uses + other.uses, latest);
+    }
+}
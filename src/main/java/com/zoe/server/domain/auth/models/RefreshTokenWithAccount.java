@@ -0,0 +1,21 @@
+package com.zoe.server.domain.auth.models;
+
+import com.zoe.server.domain.user.enums.UserRole;
+import com.zoe.server.domain.user.models.UserAuthView;
+
+import java.time.Instant;
+
+/**
+ * A refresh token together with the current credentials of its user, so a refresh
+ * can check both after one lookup. {@code account} is null when the user no
+ * longer exists. The password hash is not loaded.
+ */
+public record RefreshTokenWithAccount(RefreshToken token, UserAuthView account) {
+
+    // Used by the outer-join query, where every account column is null without a user
+    public RefreshTokenWithAccount(RefreshToken token, Long userId, String email, UserRole role, Boolean locked,
+                                   Instant lockedUntil, Boolean active, Integer credentialVersion) {
+        this(token, userId == null ? null
+                : new UserAuthView(userId, email, null, role, locked, lockedUntil, active, credentialVersion));
+    }
+}
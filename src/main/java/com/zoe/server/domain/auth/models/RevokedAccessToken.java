@@ -0,0 +1,30 @@
+package com.zoe.server.domain.auth.models;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+@Entity
+@Table(name = "revoked_access_tokens", indexes = {
+        @Index(name = "idx_revoked_access_tokens_expires", columnList = "expires_at"),
+        @Index(name = "idx_revoked_access_tokens_revoked", columnList = "revoked_at")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class RevokedAccessToken {
+    @Id
+    @Column(name = "jti", length = 36)
+    private String jti;
+    @Column(name = "user_id")
+    private Long userId;
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+    @Column(name = "revoked_at", nullable = false)
+    private Instant revokedAt;
+}
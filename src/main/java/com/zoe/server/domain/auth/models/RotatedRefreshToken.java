@@ -0,0 +1,10 @@
+package com.zoe.server.domain.auth.models;
+
+import com.zoe.server.domain.user.enums.UserRole;
+
+/**
+ * Outcome of a refresh-token rotation: the new token and the account's current
+ * identity, checked during the rotation, to issue the access token from.
+ */
+public record RotatedRefreshToken(String token, Long userId, UserRole userRole, String email, int credentialVersion) {
+}
@@ -0,0 +1,568 @@
+package com.zoe.server.domain.auth.repositories;
+
+import com.zoe.server.domain.auth.dtos.TokenStatsDto;
+import com.zoe.server.domain.auth.models.RefreshToken;
+import com.zoe.server.domain.auth.models.RefreshTokenUsage;
+import com.zoe.server.domain.user.enums.UserRole;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Repository;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Heap-backed refresh-token store for single-node deployments and tests.
+ * <p>
+ * Reads are lock-free. Writes take the lock of the stripe that owns the token's
+ * user; a family never spans users, so rotation and family revocation each touch
+ * one stripe. Stored tokens are never mutated in place: every change replaces
+ * the stored copy. An expiry-ordered index makes purging proportional to the
+ * number of expired tokens. Optionally the store is snapshotted to disk on a
+ * schedule and on shutdown, and reloaded at startup.
+ */
+@Repository
+@ConditionalOnProperty(name = "refresh-token.store", havingValue = "memory")
+public class InMemoryRefreshTokenStore implements RefreshTokenStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(InMemoryRefreshTokenStore.class);
+    private static final int SNAPSHOT_VERSION = 1;
+
+    private final ReentrantLock[] stripes;
+    private final ConcurrentHashMap<Long, RefreshToken> tokensById = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Long> idsByHash = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Long> idsBySelector = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Set<Long>> idsByFamily = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<UserKey, Set<Long>> idsByUser = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListSet<ExpiryEntry> expiryOrder = new ConcurrentSkipListSet<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private final Path snapshotPath;
+
+    public InMemoryRefreshTokenStore(@Value("${refresh-token.store.memory.stripes:64}") int stripes,
+                                     @Value("${refresh-token.store.memory.snapshot-path:}") String snapshotPath) {
+        this.stripes = new ReentrantLock[stripes];
+        for (int i = 0; i < stripes; i++) {
+            this.stripes[i] = new ReentrantLock();
+        }
+        this.snapshotPath = snapshotPath == null || snapshotPath.isBlank() ? null : Path.of(snapshotPath);
+    }
+
+    @Override
+    public RefreshToken save(RefreshToken token) {
+        RefreshToken stored = copy(token);
+        if (stored.getId() == null) {
+            stored.setId(sequence.incrementAndGet());
+        }
+        if (stored.getCreatedAt() == null) {
+            stored.setCreatedAt(Instant.now());
+        }
+        ReentrantLock lock = stripeFor(stored.getUserId());
+        lock.lock();
+        try {
+            replace(stored);
+        } finally {
+            lock.unlock();
+        }
+        token.setId(stored.getId());
+        token.setCreatedAt(stored.getCreatedAt());
+        return copy(stored);
+    }
+
+    @Override
+    public Optional<RefreshToken> findBySelector(String selector) {
+        Long id = idsBySelector.get(selector);
+        return Optional.ofNullable(id == null ? null : tokensById.get(id)).map(InMemoryRefreshTokenStore::copy);
+    }
+
+    @Override
+    public Optional<RefreshToken> findByTokenHash(String tokenHash) {
+        Long id = idsByHash.get(tokenHash);
+        return Optional.ofNullable(id == null ? null : tokensById.get(id)).map(InMemoryRefreshTokenStore::copy);
+    }
+
+    @Override
+    public List<RefreshToken> findValidTokensByUser(Long userId, UserRole userRole, Instant now) {
+        List<RefreshToken> valid = new ArrayList<>();
+        for (RefreshToken token : tokensOf(idsByUser.get(new UserKey(userId, userRole)))) {
+            if (isValidAt(token, now)) {
+                valid.add(copy(token));
+            }
+        }
+        return valid;
+    }
+
+    @Override
+    public void delete(RefreshToken token) {
+        if (token.getId() == null) {
+            return;
+        }
+        RefreshToken stored = tokensById.get(token.getId());
+        if (stored == null) {
+            return;
+        }
+        ReentrantLock lock = stripeFor(stored.getUserId());
+        lock.lock();
+        try {
+            RefreshToken current = tokensById.get(token.getId());
+            if (current != null) {
+                unindex(current);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Optional<RefreshToken> rotate(Long oldTokenId, Instant oldExpiresAt, RefreshToken replacement, Instant now) {
+        RefreshToken candidate = tokensById.get(oldTokenId);
+        if (candidate == null) {
+            return Optional.empty();
+        }
+        if (!candidate.getUserId().equals(replacement.getUserId())) {
+            throw new IllegalArgumentException("Replacement token must belong to the same user");
+        }
+        ReentrantLock lock = stripeFor(candidate.getUserId());
+        lock.lock();
+        try {
+            RefreshToken current = tokensById.get(oldTokenId);
+            if (current == null || !current.getExpiresAt().equals(oldExpiresAt) || !isValidAt(current, now)) {
+                return Optional.empty();
+            }
+            RefreshToken claimed = copy(current);
+            claimed.setRevokedAt(now);
+            claimed.setRevokedReason(RefreshToken.ROTATED_REASON);
+            replace(claimed);
+            replacement.setFamilyId(current.getFamilyId());
+            return Optional.of(save(replacement));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int revokeFamily(String familyId, Instant revokedAt, String reason) {
+        return updateFamily(familyId, token -> {
+            token.setRevokedAt(revokedAt);
+            token.setRevokedReason(reason);
+        });
+    }
+
+    @Override
+    public int revokeUser(Long userId, UserRole userRole, Instant revokedAt, String reason) {
+        ReentrantLock lock = stripeFor(userId);
+        lock.lock();
+        try {
+            int count = 0;
+            for (RefreshToken token : tokensOf(idsByUser.get(new UserKey(userId, userRole)))) {
+                if (token.getRevokedAt() != null) {
+                    continue;
+                }
+                RefreshToken revoked = copy(token);
+                revoked.setRevokedAt(revokedAt);
+                revoked.setRevokedReason(reason);
+                replace(revoked);
+                count++;
+            }
+            return count;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int markFamilyAsCompromised(String familyId, Instant revokedAt) {
+        return updateFamily(familyId, token -> {
+            token.setCompromised(true);
+            token.setRevokedAt(revokedAt);
+            token.setRevokedReason("Token compromised");
+        });
+    }
+
+    @Override
+    public int revokeExcessTokens(Long userId, UserRole userRole, int keep, Instant now, String reason) {
+        ReentrantLock lock = stripeFor(userId);
+        lock.lock();
+        try {
+            List<RefreshToken> valid = new ArrayList<>();
+            for (RefreshToken token : tokensOf(idsByUser.get(new UserKey(userId, userRole)))) {
+                if (isValidAt(token, now)) {
+                    valid.add(token);
+                }
+            }
+            if (valid.size() <= keep) {
+                return 0;
+            }
+            valid.sort(Comparator.comparing(RefreshToken::getCreatedAt)
+                    .thenComparing(RefreshToken::getId)
+                    .reversed());
+            List<RefreshToken> excess = valid.subList(Math.max(keep, 0), valid.size());
+            for (RefreshToken token : excess) {
+                RefreshToken revoked = copy(token);
+                revoked.setRevokedAt(now);
+                revoked.setRevokedReason(reason);
+                replace(revoked);
+            }
+            return excess.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int purgeExpired(Instant cutoff) {
+        int purged = 0;
+        for (ExpiryEntry entry : expiryOrder.headSet(new ExpiryEntry(cutoff, Long.MIN_VALUE))) {
+            RefreshToken stored = tokensById.get(entry.id());
+            if (stored == null) {
+                expiryOrder.remove(entry);
+                continue;
+            }
+            ReentrantLock lock = stripeFor(stored.getUserId());
+            lock.lock();
+            try {
+                RefreshToken current = tokensById.get(entry.id());
+                if (current != null && current.getExpiresAt().isBefore(cutoff)) {
+                    unindex(current);
+                    purged++;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        return purged;
+    }
+
+    @Override
+    public void recordUsage(List<RefreshTokenUsage> usage) {
+        for (RefreshTokenUsage tokenUsage : usage) {
+            RefreshToken stored = tokensById.get(tokenUsage.tokenId());
+            if (stored == null) {
+                continue;
+            }
+            ReentrantLock lock = stripeFor(stored.getUserId());
+            lock.lock();
+            try {
+                RefreshToken current = tokensById.get(tokenUsage.tokenId());
+                if (current == null) {
+                    continue;
+                }
+                RefreshToken used = copy(current);
+                used.setUseCount((used.getUseCount() == null ? 0 : used.getUseCount()) + tokenUsage.uses());
+                if (used.getLastUsedAt() == null || used.getLastUsedAt().isBefore(tokenUsage.lastUsedAt())) {
+                    used.setLastUsedAt(tokenUsage.lastUsedAt());
+                }
+                replace(used);
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    @Override
+    public TokenStatsDto countTokens(Instant now) {
+        long total = 0;
+        long active = 0;
+        long expired = 0;
+        for (RefreshToken token : tokensById.values()) {
+            total++;
+            if (!token.getExpiresAt().isAfter(now)) {
+                expired++;
+            } else if (isValidAt(token, now)) {
+                active++;
+            }
+        }
+        return new TokenStatsDto(total, active, expired, total - active - expired);
+    }
+
+    @PostConstruct
+    public void loadSnapshot() {
+        if (snapshotPath == null || !Files.exists(snapshotPath)) {
+            return;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(snapshotPath)))) {
+            int version = in.readInt();
+            if (version != SNAPSHOT_VERSION) {
+                logger.warn("Ignoring refresh token snapshot {} with unsupported version {}", snapshotPath, version);
+                return;
+            }
+            sequence.set(in.readLong());
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                RefreshToken token = readToken(in);
+                if (token.getExpiresAt().isAfter(Instant.now())) {
+                    replace(token);
+                }
+            }
+            logger.info("Loaded {} refresh tokens from snapshot {}", tokensById.size(), snapshotPath);
+        } catch (IOException e) {
+            logger.error("Failed to load refresh token snapshot {}", snapshotPath, e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${refresh-token.store.memory.snapshot-interval:PT1M}")
+    @PreDestroy
+    public void writeSnapshot() {
+        if (snapshotPath == null) {
+            return;
+        }
+        List<RefreshToken> tokens = new ArrayList<>(tokensById.values());
+        try {
+            Path parent = snapshotPath.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            Path temp = Files.createTempFile(parent, "refresh-tokens", ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(SNAPSHOT_VERSION);
+                out.writeLong(sequence.get());
+                out.writeInt(tokens.size());
+                for (RefreshToken token : tokens) {
+                    writeToken(out, token);
+                }
+            }
+            Files.move(temp, snapshotPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            logger.debug("Wrote {} refresh tokens to snapshot {}", tokens.size(), snapshotPath);
+        } catch (IOException e) {
+            logger.error("Failed to write refresh token snapshot {}", snapshotPath, e);
+        }
+    }
+
+    private int updateFamily(String familyId, Consumer<RefreshToken> change) {
+        Set<Long> ids = idsByFamily.get(familyId);
+        if (ids == null || ids.isEmpty()) {
+            return 0;
+        }
+        RefreshToken any = tokensOf(ids).stream().findFirst().orElse(null);
+        if (any == null) {
+            return 0;
+        }
+        ReentrantLock lock = stripeFor(any.getUserId());
+        lock.lock();
+        try {
+            List<RefreshToken> family = tokensOf(idsByFamily.get(familyId));
+            for (RefreshToken token : family) {
+                RefreshToken updated = copy(token);
+                change.accept(updated);
+                replace(updated);
+            }
+            return family.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Callers hold the stripe lock of the token's user. The stored copy is
+    // overwritten in place and only index keys that changed are moved, so
+    // lock-free readers never see an updated token go missing.
+    private void replace(RefreshToken token) {
+        Long id = token.getId();
+        RefreshToken previous = tokensById.put(id, token);
+        if (token.getTokenHash() != null) {
+            idsByHash.put(token.getTokenHash(), id);
+        }
+        if (token.getSelector() != null) {
+            idsBySelector.put(token.getSelector(), id);
+        }
+        if (token.getFamilyId() != null) {
+            idsByFamily.computeIfAbsent(token.getFamilyId(), key -> ConcurrentHashMap.newKeySet()).add(id);
+        }
+        UserKey user = new UserKey(token.getUserId(), token.getUserRole());
+        idsByUser.computeIfAbsent(user, key -> ConcurrentHashMap.newKeySet()).add(id);
+        expiryOrder.add(new ExpiryEntry(token.getExpiresAt(), id));
+        sequence.accumulateAndGet(id, Math::max);
+        if (previous == null) {
+            return;
+        }
+        if (previous.getTokenHash() != null && !previous.getTokenHash().equals(token.getTokenHash())) {
+            idsByHash.remove(previous.getTokenHash(), id);
+        }
+        if (previous.getSelector() != null && !previous.getSelector().equals(token.getSelector())) {
+            idsBySelector.remove(previous.getSelector(), id);
+        }
+        if (previous.getFamilyId() != null && !previous.getFamilyId().equals(token.getFamilyId())) {
+            removeFrom(idsByFamily, previous.getFamilyId(), id);
+        }
+        UserKey previousUser = new UserKey(previous.getUserId(), previous.getUserRole());
+        if (!previousUser.equals(user)) {
+            removeFrom(idsByUser, previousUser, id);
+        }
+        if (!previous.getExpiresAt().equals(token.getExpiresAt())) {
+            expiryOrder.remove(new ExpiryEntry(previous.getExpiresAt(), id));
+        }
+    }
+
+    // Callers hold the stripe lock of the token's user.
+    private void unindex(RefreshToken token) {
+        Long id = token.getId();
+        tokensById.remove(id);
+        if (token.getTokenHash() != null) {
+            idsByHash.remove(token.getTokenHash(), id);
+        }
+        if (token.getSelector() != null) {
+            idsBySelector.remove(token.getSelector(), id);
+        }
+        if (token.getFamilyId() != null) {
+            removeFrom(idsByFamily, token.getFamilyId(), id);
+        }
+        removeFrom(idsByUser, new UserKey(token.getUserId(), token.getUserRole()), id);
+        expiryOrder.remove(new ExpiryEntry(token.getExpiresAt(), id));
+    }
+
+    private static <K> void removeFrom(ConcurrentHashMap<K, Set<Long>> index, K key, Long id) {
+        index.computeIfPresent(key, (k, ids) -> {
+            ids.remove(id);
+            return ids.isEmpty() ? null : ids;
+        });
+    }
+
+    private List<RefreshToken> tokensOf(Set<Long> ids) {
+        if (ids == null) {
+            return List.of();
+        }
+        List<RefreshToken> tokens = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            RefreshToken token = tokensById.get(id);
+            if (token != null) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private ReentrantLock stripeFor(Long userId) {
+        return stripes[Math.floorMod(userId.hashCode(), stripes.length)];
+    }
+
+    private static boolean isValidAt(RefreshToken token, Instant now) {
+        return token.getRevokedAt() == null && !token.isCompromised() && token.getExpiresAt().isAfter(now);
+    }
+
+    private static RefreshToken copy(RefreshToken source) {
+        RefreshToken copy = new RefreshToken();
+        copy.setId(source.getId());
+        copy.setTokenHash(source.getTokenHash());
+        copy.setSelector(source.getSelector());
+        copy.setVerifierHash(source.getVerifierHash() == null ? null : source.getVerifierHash().clone());
+        copy.setUserId(source.getUserId());
+        copy.setUserRole(source.getUserRole());
+        copy.setExpiresAt(source.getExpiresAt());
+        copy.setRevokedAt(source.getRevokedAt());
+        copy.setRevokedReason(source.getRevokedReason());
+        copy.setEmail(source.getEmail());
+        copy.setCredentialVersion(source.getCredentialVersion());
+        copy.setFamilyId(source.getFamilyId());
+        copy.setCompromised(source.isCompromised());
+        copy.setLastUsedAt(source.getLastUsedAt());
+        copy.setUseCount(source.getUseCount());
+        copy.setCreatedAt(source.getCreatedAt());
+        return copy;
+    }
+
+    private static void writeToken(DataOutputStream out, RefreshToken token) throws IOException {
+        out.writeLong(token.getId());
+        writeNullable(out, token.getTokenHash());
+        out.writeLong(token.getUserId());
+        out.writeUTF(token.getUserRole().name());
+        out.writeLong(token.getExpiresAt().toEpochMilli());
+        writeNullable(out, token.getRevokedAt());
+        writeNullable(out, token.getRevokedReason());
+        writeNullable(out, token.getFamilyId());
+        out.writeBoolean(token.isCompromised());
+        writeNullable(out, token.getLastUsedAt());
+        out.writeInt(token.getUseCount() == null ? 0 : token.getUseCount());
+        writeNullable(out, token.getCreatedAt());
+        writeNullable(out, token.getSelector());
+        out.writeBoolean(token.getVerifierHash() != null);
+        if (token.getVerifierHash() != null) {
+            out.writeInt(token.getVerifierHash().length);
+            out.write(token.getVerifierHash());
+        }
+        writeNullable(out, token.getEmail());
+        out.writeBoolean(token.getCredentialVersion() != null);
+        if (token.getCredentialVersion() != null) {
+            out.writeInt(token.getCredentialVersion());
+        }
+    }
+
+    private static RefreshToken readToken(DataInputStream in) throws IOException {
+        RefreshToken token = new RefreshToken();
+        token.setId(in.readLong());
+        token.setTokenHash(readNullableString(in));
+        token.setUserId(in.readLong());
+        token.setUserRole(UserRole.valueOf(in.readUTF()));
+        token.setExpiresAt(Instant.ofEpochMilli(in.readLong()));
+        token.setRevokedAt(readNullableInstant(in));
+        token.setRevokedReason(readNullableString(in));
+        token.setFamilyId(readNullableString(in));
+        token.setCompromised(in.readBoolean());
+        token.setLastUsedAt(readNullableInstant(in));
+        token.setUseCount(in.readInt());
+        token.setCreatedAt(readNullableInstant(in));
+        token.setSelector(readNullableString(in));
+        if (in.readBoolean()) {
+            byte[] verifierHash = new byte[in.readInt()];
+            in.readFully(verifierHash);
+            token.setVerifierHash(verifierHash);
+        }
+        token.setEmail(readNullableString(in));
+        if (in.readBoolean()) {
+            token.setCredentialVersion(in.readInt());
+        }
+        return token;
+    }
+
+    private static void writeNullable(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static void writeNullable(DataOutputStream out, Instant value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeLong(value.toEpochMilli());
+        }
+    }
+
+    private static String readNullableString(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    private static Instant readNullableInstant(DataInputStream in) throws IOException {
+        return in.readBoolean() ? Instant.ofEpochMilli(in.readLong()) : null;
+    }
+
+    private record UserKey(Long userId, UserRole userRole) {
+    }
+
+    private record ExpiryEntry(Instant expiresAt, long id) implements Comparable<ExpiryEntry> {
+        private static final Comparator<ExpiryEntry> ORDER =
+                Comparator.comparing(ExpiryEntry::expiresAt).thenComparingLong(ExpiryEntry::id);
+
+        @Override
+        public int compareTo(ExpiryEntry other) {
+            return ORDER.compare(this, other);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.zoe.server.domain.auth.repositories;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Keeps signing keys in {@code jwt_signing_keys}. Rotation is serialized across
+ * nodes with a transaction-scoped advisory lock.
+ */
+@Repository
+public class JdbcJwtSigningKeyStore implements JwtSigningKeyStore {
+
+    // Arbitrary application-wide key for pg_advisory_xact_lock
+    private static final long ROTATION_LOCK = 0x6a77_6b73L;
+
+    private static final RowMapper<StoredSigningKey> ROW_MAPPER = (rs, rowNum) -> new StoredSigningKey(
+            rs.getString("kid"),
+            rs.getBytes("public_key"),
+            rs.getBytes("private_key"),
+            rs.getTimestamp("created_at").toInstant(),
+            toInstant(rs.getTimestamp("activated_at")),
+            toInstant(rs.getTimestamp("retired_at")));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public JdbcJwtSigningKeyStore(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public List<StoredSigningKey> findAll() {
+        return jdbcTemplate.query("""
+                SELECT kid, public_key, private_key, created_at, activated_at, retired_at
+                FROM jwt_signing_keys
+                ORDER BY created_at
+                """, ROW_MAPPER);
+    }
+
+    @Override
+    public void save(StoredSigningKey key) {
+        jdbcTemplate.update("""
+                        INSERT INTO jwt_signing_keys (kid, public_key, private_key, created_at, activated_at, retired_at)
+                        VALUES (?, ?, ?, ?, ?, ?)
+                        ON CONFLICT (kid) DO UPDATE
+                        SET activated_at = EXCLUDED.activated_at, retired_at = EXCLUDED.retired_at
+                        """,
+                key.kid(), key.publicKey(), key.encryptedPrivateKey(), Timestamp.from(key.createdAt()),
+                toTimestamp(key.activatedAt()), toTimestamp(key.retiredAt()));
+    }
+
+    @Override
+    public void delete(String kid) {
+        jdbcTemplate.update("DELETE FROM jwt_signing_keys WHERE kid = ?", kid);
+    }
+
+    @Override
+    public <T> T exclusively(Supplier<T> work) {
+        return transactionTemplate.execute(status -> {
+            jdbcTemplate.query("SELECT pg_advisory_xact_lock(?)", (RowCallbackHandler) rs -> { }, ROTATION_LOCK);
+            return work.get();
+        });
+    }
+
+    private static Instant toInstant(Timestamp timestamp) {
+        return timestamp == null ? null : timestamp.toInstant();
+    }
+
+    private static Timestamp toTimestamp(Instant instant) {
+        return instant == null ? null : Timestamp.from(instant);
+    }
+}
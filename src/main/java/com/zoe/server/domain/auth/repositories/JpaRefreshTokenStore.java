@@ -0,0 +1,180 @@
+package com.zoe.server.domain.auth.repositories;
+
+import com.zoe.server.domain.auth.dtos.TokenStatsDto;
+import com.zoe.server.domain.auth.metrics.AuthMetrics;
+import com.zoe.server.domain.auth.models.RefreshToken;
+import com.zoe.server.domain.auth.models.RefreshTokenUsage;
+import com.zoe.server.domain.auth.models.RefreshTokenWithAccount;
+import com.zoe.server.domain.user.enums.UserRole;
+import com.zoe.server.domain.user.models.UserAuthView;
+import jakarta.persistence.EntityManager;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+
+@Repository
+@ConditionalOnProperty(name = "refresh-token.store", havingValue = "jpa", matchIfMissing = true)
+public class JpaRefreshTokenStore implements RefreshTokenStore {
+
+    private static final String ROTATE = """
+            WITH claimed AS (
+                UPDATE refresh_tokens
+                SET revoked_at = ?, revoked_reason = 'Token rotated'
+                WHERE id = ?
+                  AND expires_at = ?
+                  AND revoked_at IS NULL
+                  AND is_compromised = FALSE
+                  AND expires_at > ?
+                RETURNING user_id, user_role, family_id
+            )
+            INSERT INTO refresh_tokens (selector, verifier_hash, user_id, user_role, email, credential_version,
+                                        expires_at, family_id, is_compromised, use_count, created_at)
+            SELECT CAST(? AS VARCHAR), CAST(? AS BYTEA), user_id, user_role, CAST(? AS VARCHAR), CAST(? AS INTEGER),
+                   CAST(? AS TIMESTAMP WITH TIME ZONE), family_id, FALSE, 0, CAST(? AS TIMESTAMP WITH TIME ZONE)
+            FROM claimed
+            RETURNING id
+            """;
+    private static final String RECORD_USAGE = """
+            UPDATE refresh_tokens
+            SET use_count = use_count + ?,
+                last_used_at = GREATEST(COALESCE(last_used_at, ?), ?)
+            WHERE id = ? AND expires_at = ?
+            """;
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final RefreshTokenPartitionManager partitionManager;
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManager entityManager;
+    private final AuthMetrics authMetrics;
+
+    public JpaRefreshTokenStore(RefreshTokenRepository refreshTokenRepository,
+                                RefreshTokenPartitionManager partitionManager,
+                                JdbcTemplate jdbcTemplate,
+                                EntityManager entityManager,
+                                AuthMetrics authMetrics) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.partitionManager = partitionManager;
+        this.jdbcTemplate = jdbcTemplate;
+        this.entityManager = entityManager;
+        this.authMetrics = authMetrics;
+    }
+
+    @Override
+    public RefreshToken save(RefreshToken token) {
+        return refreshTokenRepository.save(token);
+    }
+
+    @Override
+    public Optional<RefreshToken> findBySelector(String selector) {
+        return refreshTokenRepository.findBySelector(selector);
+    }
+
+    @Override
+    public Optional<RefreshToken> findByTokenHash(String tokenHash) {
+        return refreshTokenRepository.findByTokenHash(tokenHash);
+    }
+
+    @Override
+    public Optional<RefreshTokenWithAccount> findBySelectorWithAccount(String selector,
+                                                                      Function<Long, Optional<UserAuthView>> accounts) {
+        return refreshTokenRepository.findBySelectorWithAccount(selector);
+    }
+
+    @Override
+    public List<RefreshToken> findValidTokensByUser(Long userId, UserRole userRole, Instant now) {
+        return refreshTokenRepository.findValidTokensByUser(userId, userRole, now);
+    }
+
+    @Override
+    public void delete(RefreshToken token) {
+        refreshTokenRepository.delete(token);
+    }
+
+    /**
+     * Claims the old token and inserts its successor in one statement. It runs on
+     * JDBC because a data-modifying CTE with RETURNING is neither a JPA query nor an
+     * update count; pending entity changes are flushed first and the persistence
+     * context is cleared afterwards, so no managed copy of the old token is stale.
+     */
+    @Override
+    @Transactional
+    public Optional<RefreshToken> rotate(Long oldTokenId, Instant oldExpiresAt, RefreshToken replacement, Instant now) {
+        Timestamp at = Timestamp.from(now);
+        entityManager.flush();
+        Optional<Long> newId = authMetrics.timeStatement("refresh-token.rotate", () -> jdbcTemplate.query(ROTATE,
+                rs -> rs.next() ? Optional.of(rs.getLong(1)) : Optional.<Long>empty(),
+                at, oldTokenId, Timestamp.from(oldExpiresAt), at,
+                replacement.getSelector(), replacement.getVerifierHash(), replacement.getEmail(),
+                replacement.getCredentialVersion(), Timestamp.from(replacement.getExpiresAt()), at));
+        entityManager.clear();
+        newId.ifPresent(id -> {
+            replacement.setId(id);
+            replacement.setCreatedAt(now);
+        });
+        return newId.map(id -> replacement);
+    }
+
+    @Override
+    @Transactional
+    public int revokeFamily(String familyId, Instant revokedAt, String reason) {
+        return refreshTokenRepository.revokeAllTokensInFamily(familyId, revokedAt, reason);
+    }
+
+    @Override
+    @Transactional
+    public int revokeUser(Long userId, UserRole userRole, Instant revokedAt, String reason) {
+        return refreshTokenRepository.revokeAllUserTokens(userId, userRole, revokedAt, reason);
+    }
+
+    @Override
+    @Transactional
+    public int markFamilyAsCompromised(String familyId, Instant revokedAt) {
+        return refreshTokenRepository.markFamilyAsCompromised(familyId, revokedAt);
+    }
+
+    @Override
+    @Transactional
+    public int revokeExcessTokens(Long userId, UserRole userRole, int keep, Instant now, String reason) {
+        return refreshTokenRepository.revokeExcessTokens(userId, userRole.name(), keep, now, reason);
+    }
+
+    // Partitions are detached concurrently, which is not possible inside a transaction
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public int purgeExpired(Instant cutoff) {
+        return Math.toIntExact(partitionManager.dropPartitionsBefore(cutoff));
+    }
+
+    @Override
+    @Transactional
+    public void recordUsage(List<RefreshTokenUsage> usage) {
+        if (usage.isEmpty()) {
+            return;
+        }
+        entityManager.flush();
+        authMetrics.timeStatement("refresh-token.record-usage", () ->
+                jdbcTemplate.batchUpdate(RECORD_USAGE, usage, usage.size(), (statement, tokenUsage) -> {
+                    Timestamp lastUsedAt = Timestamp.from(tokenUsage.lastUsedAt());
+                    statement.setInt(1, tokenUsage.uses());
+                    statement.setTimestamp(2, lastUsedAt);
+                    statement.setTimestamp(3, lastUsedAt);
+                    statement.setLong(4, tokenUsage.tokenId());
+                    statement.setTimestamp(5, Timestamp.from(tokenUsage.expiresAt()));
+                }));
+        entityManager.clear();
+    }
+
+    @Override
+    public TokenStatsDto countTokens(Instant now) {
+        RefreshTokenRepository.TokenCounts counts = refreshTokenRepository.countTokens(now);
+        return new TokenStatsDto(counts.getTotal(), counts.getActive(), counts.getExpired(), counts.getRevoked());
+    }
+}
@@ -0,0 +1,37 @@
+package com.zoe.server.domain.auth.repositories;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Storage for the access-token signing keys that every node signs and verifies
+ * with. {@link JdbcJwtSigningKeyStore} keeps them in the shared database.
+ * Private keys are handed to the store already encrypted.
+ */
+public interface JwtSigningKeyStore {
+
+    List<StoredSigningKey> findAll();
+
+    /**
+     * Inserts the key, or updates its {@code activatedAt} and {@code retiredAt}
+     * if a key with the same {@code kid} is already stored.
+     */
+    void save(StoredSigningKey key);
+
+    void delete(String kid);
+
+    /**
+     * Runs {@code work} in one transaction while holding a lock that excludes the
+     * same section on every other node.
+     */
+    <T> T exclusively(Supplier<T> work);
+
+    record StoredSigningKey(String kid,
+                            byte[] publicKey,
+                            byte[] encryptedPrivateKey,
+                            Instant createdAt,
+                            Instant activatedAt,
+                            Instant retiredAt) {
+    }
+}
@@ -0,0 +1,101 @@
+package com.zoe.server.domain.auth.repositories;
+
+import com.zoe.server.domain.auth.metrics.AuthMetrics;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes failed-login state back to {@code user_credentials} in JDBC batches.
+ * Emails without an account simply match no row.
+ * <p>
+ * Failures are merged into the stored state rather than overwriting it, so a
+ * flush never shortens or lifts a lock set by another node or by an
+ * administrator. Only a reset after a successful login clears state, and even
+ * then it keeps a lock that is indefinite or still running, since such a lock
+ * was set after the login succeeded.
+ */
+@Repository
+public class LoginAttemptRepository {
+
+    private static final String MERGE_FAILURES = """
+            UPDATE user_credentials
+            SET logging_attempts = GREATEST(logging_attempts, ?),
+                is_locked = is_locked OR ?,
+                locked_until = CASE
+                    WHEN CAST(? AS TIMESTAMP WITH TIME ZONE) IS NULL THEN locked_until
+                    WHEN is_locked AND locked_until IS NULL THEN NULL
+                    ELSE GREATEST(locked_until, CAST(? AS TIMESTAMP WITH TIME ZONE))
+                END
+            WHERE email = ?
+            """;
+
+    private static final String RESET = """
+            UPDATE user_credentials
+            SET logging_attempts = 0,
+                is_locked = is_locked AND (locked_until IS NULL OR locked_until > ?),
+                locked_until = CASE WHEN is_locked AND locked_until > ? THEN locked_until END
+            WHERE email = ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AuthMetrics authMetrics;
+
+    public LoginAttemptRepository(JdbcTemplate jdbcTemplate, AuthMetrics authMetrics) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.authMetrics = authMetrics;
+    }
+
+    public void updateBatch(List<LoginAttemptState> states) {
+        List<LoginAttemptState> failures = new ArrayList<>(states.size());
+        List<LoginAttemptState> resets = new ArrayList<>();
+        for (LoginAttemptState state : states) {
+            (state.isReset() ? resets : failures).add(state);
+        }
+        if (!failures.isEmpty()) {
+            authMetrics.timeStatement("login-attempts.merge-failures", () ->
+                    jdbcTemplate.batchUpdate(MERGE_FAILURES, failures, failures.size(), (statement, state) -> {
+                        statement.setInt(1, state.failedAttempts());
+                        statement.setBoolean(2, state.lockedUntil() != null);
+                        if (state.lockedUntil() != null) {
+                            Timestamp lockedUntil = Timestamp.from(state.lockedUntil());
+                            statement.setTimestamp(3, lockedUntil);
+                            statement.setTimestamp(4, lockedUntil);
+                        } else {
+                            statement.setNull(3, Types.TIMESTAMP_WITH_TIMEZONE);
+                            statement.setNull(4, Types.TIMESTAMP_WITH_TIMEZONE);
+                        }
+                        statement.setString(5, state.email());
+                    }));
+        }
+        if (!resets.isEmpty()) {
+            Timestamp now = Timestamp.from(Instant.now());
+            authMetrics.timeStatement("login-attempts.reset", () ->
+                    jdbcTemplate.batchUpdate(RESET, resets, resets.size(), (statement, state) -> {
+                        statement.setTimestamp(1, now);
+                        statement.setTimestamp(2, now);
+                        statement.setString(3, state.email());
+                    }));
+        }
+    }
+
+    /**
+     * Latest failed-login state of an account on this node. A state without
+     * failures or lock is a reset after a successful login.
+     */
+    public record LoginAttemptState(String email, int failedAttempts, Instant lockedUntil) {
+
+        public static LoginAttemptState reset(String email) {
+            return new LoginAttemptState(email, 0, null);
+        }
+
+        public boolean isReset() {
+            return failedAttempts == 0 && lockedUntil == null;
+        }
+    }
+}
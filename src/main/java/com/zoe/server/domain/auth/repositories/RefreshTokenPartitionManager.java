@@ -0,0 +1,182 @@
+package com.zoe.server.domain.auth.repositories;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Maintains the daily {@code expires_at} partitions of {@code refresh_tokens}.
+ * Partitions are created ahead of time for at least the lifetime of a refresh
+ * token, since there is no default partition to catch rows outside them and an
+ * insert for a missing day fails; creation is serialised between nodes inside
+ * {@code create_refresh_token_partition} (V4). Failed creations are counted on
+ * {@code auth.refresh-token.partitions.creation-failures}, and
+ * {@code auth.refresh-token.partitions.days-covered} is how many days ahead are
+ * ready, which is the value to alert on. Expired tokens are removed by dropping
+ * whole partitions, which is a catalog operation whose cost does not depend on
+ * the row count. Each one is first detached with {@code DETACH PARTITION ...
+ * CONCURRENTLY}, so queries and inserts on the parent are not blocked behind an
+ * ACCESS EXCLUSIVE lock; that statement cannot run in a transaction, so it is
+ * issued on an autocommit connection.
+ */
+@Component
+@ConditionalOnProperty(name = "refresh-token.store", havingValue = "jpa", matchIfMissing = true)
+public class RefreshTokenPartitionManager implements MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(RefreshTokenPartitionManager.class);
+
+    // Daily partitions that end at or before the cutoff, including any whose detach was interrupted
+    private static final String SELECT_EXPIRED = """
+            SELECT c.relname, c.reltuples, i.inhdetachpending
+            FROM pg_inherits i
+                     JOIN pg_class c ON c.oid = i.inhrelid
+            WHERE i.inhparent = 'refresh_tokens'::regclass
+              AND c.relname ~ '^refresh_tokens_p[0-9]{8}$'
+              AND (to_date(substring(c.relname FROM 17), 'YYYYMMDD') + 1)::timestamp AT TIME ZONE 'UTC' <= ?
+            """;
+    // Only one node detaches at a time; a second concurrent detach of the same partition fails
+    private static final long DROP_LOCK = 0x7265667265736801L;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int daysAhead;
+    private final AtomicLong creationFailures = new AtomicLong();
+    // Last day of the unbroken run of partitions starting yesterday
+    private volatile LocalDate coveredThrough;
+
+    public RefreshTokenPartitionManager(JdbcTemplate jdbcTemplate,
+                                        @Value("${refresh-token.partitions.days-ahead:14}") int daysAhead,
+                                        @Value("${jwt.refresh-token-expiration:604800000}") long refreshTokenExpiration) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.daysAhead = Math.max(daysAhead, (int) Duration.ofMillis(refreshTokenExpiration).toDays() + 1);
+    }
+
+    @PostConstruct
+    @Scheduled(cron = "0 15 1 * * ?", zone = "UTC")
+    public void createUpcomingPartitions() {
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        LocalDate covered = today.minusDays(2);
+        int created = 0;
+        // From yesterday, for tokens written just before midnight
+        for (int day = -1; day <= daysAhead; day++) {
+            LocalDate partitionDay = today.plusDays(day);
+            try {
+                Boolean createdPartition = jdbcTemplate.queryForObject(
+                        "SELECT create_refresh_token_partition(?)", Boolean.class, Date.valueOf(partitionDay));
+                if (Boolean.TRUE.equals(createdPartition)) {
+                    created++;
+                }
+                if (covered.plusDays(1).equals(partitionDay)) {
+                    covered = partitionDay;
+                }
+            } catch (DataAccessException e) {
+                // Tokens expiring on this day cannot be inserted until it exists
+                creationFailures.incrementAndGet();
+                logger.error("Failed to create the refresh token partition for {}", partitionDay, e);
+            }
+        }
+        coveredThrough = covered;
+        if (created > 0) {
+            logger.info("Created {} refresh token partitions up to {}", created, today.plusDays(daysAhead));
+        }
+    }
+
+    /**
+     * Detaches and drops the daily partitions that end at or before
+     * {@code cutoff}. Returns the number of rows they held according to planner
+     * statistics. Must not be called inside a transaction.
+     */
+    public long dropPartitionsBefore(Instant cutoff) {
+        Long dropped = jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+            if (!connection.getAutoCommit()) {
+                throw new IllegalStateException("Partitions can only be detached outside a transaction");
+            }
+            if (!advisoryLock(connection, "pg_try_advisory_lock")) {
+                logger.debug("Another node is dropping expired refresh token partitions");
+                return 0L;
+            }
+            try {
+                return dropExpired(connection, cutoff);
+            } finally {
+                advisoryLock(connection, "pg_advisory_unlock");
+            }
+        });
+        return dropped == null ? 0 : dropped;
+    }
+
+    private long dropExpired(Connection connection, Instant cutoff) throws SQLException {
+        List<ExpiredPartition> expired = new ArrayList<>();
+        try (PreparedStatement select = connection.prepareStatement(SELECT_EXPIRED)) {
+            select.setTimestamp(1, Timestamp.from(cutoff));
+            try (ResultSet rs = select.executeQuery()) {
+                while (rs.next()) {
+                    expired.add(new ExpiredPartition(rs.getString(1), (long) Math.max(rs.getDouble(2), 0), rs.getBoolean(3)));
+                }
+            }
+        }
+        long dropped = 0;
+        try (Statement statement = connection.createStatement()) {
+            for (ExpiredPartition partition : expired) {
+                String table = '"' + partition.name() + '"';
+                // A detach interrupted half-way leaves the partition pending; FINALIZE completes it
+                statement.execute("ALTER TABLE refresh_tokens DETACH PARTITION " + table
+                        + (partition.detachPending() ? " FINALIZE" : " CONCURRENTLY"));
+                statement.execute("DROP TABLE " + table);
+                dropped += partition.rows();
+                logger.debug("Dropped refresh token partition {}", partition.name());
+            }
+        }
+        return dropped;
+    }
+
+    private static boolean advisoryLock(Connection connection, String function) throws SQLException {
+        try (PreparedStatement lock = connection.prepareStatement("SELECT " + function + "(?)")) {
+            lock.setLong(1, DROP_LOCK);
+            try (ResultSet rs = lock.executeQuery()) {
+                return rs.next() && rs.getBoolean(1);
+            }
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("auth.refresh-token.partitions.creation-failures", creationFailures, AtomicLong::get)
+                .register(registry);
+        Gauge.builder("auth.refresh-token.partitions.days-covered", this, RefreshTokenPartitionManager::daysCovered)
+                .register(registry);
+    }
+
+    private double daysCovered() {
+        LocalDate covered = coveredThrough;
+        return covered == null ? 0 : ChronoUnit.DAYS.between(LocalDate.now(ZoneOffset.UTC), covered);
+    }
+
+    private record ExpiredPartition(String name, long rows, boolean detachPending) {
+    }
+}
@@ -1,6 +1,7 @@
 package com.zoe.server.domain.auth.repositories;
 
 import com.zoe.server.domain.auth.models.RefreshToken;
+import com.zoe.server.domain.auth.models.RefreshTokenWithAccount;
 import com.zoe.server.domain.user.enums.UserRole;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
@@ -15,32 +16,73 @@ import java.util.Optional;
 @Repository
 public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
 
-    Optional<RefreshToken> findByTokenHash(String tokenHash);
-
-    List<RefreshToken> findByUserIdAndUserRole(Long userId, UserRole userRole);
+    Optional<RefreshToken> findBySelector(String selector);
 
-    List<RefreshToken> findByFamilyId(String familyId);
+    Optional<RefreshToken> findByTokenHash(String tokenHash);
 
-    @Query("SELECT rt FROM RefreshToken rt WHERE rt.userId = :userId AND rt.userRole = :userRole AND rt.revokedAt IS NULL AND rt.expiresAt > CURRENT_TIMESTAMP AND rt.isCompromised = false")
-    List<RefreshToken> findValidTokensByUser(@Param("userId") Long userId, @Param("userRole") UserRole userRole);
+    @Query("""
+            SELECT new com.zoe.server.domain.auth.models.RefreshTokenWithAccount(
+                rt, u.id, c.email, c.userRole, c.isLocked, c.lockedUntil, c.isActive, c.credentialVersion)
+            FROM RefreshToken rt
+            LEFT JOIN User u ON u.id = rt.userId
+            LEFT JOIN u.userCredentials c
+            WHERE rt.selector = :selector
+            """)
+    Optional<RefreshTokenWithAccount> findBySelectorWithAccount(@Param("selector") String selector);
 
-    @Query("SELECT rt FROM RefreshToken rt WHERE rt.expiresAt < :now")
-    List<RefreshToken> findExpiredTokens(@Param("now") Instant now);
+    @Query("SELECT rt FROM RefreshToken rt WHERE rt.userId = :userId AND rt.userRole = :userRole AND rt.revokedAt IS NULL AND rt.expiresAt > :now AND rt.isCompromised = false")
+    List<RefreshToken> findValidTokensByUser(@Param("userId") Long userId, @Param("userRole") UserRole userRole, @Param("now") Instant now);
 
-    @Query("SELECT rt FROM RefreshToken rt WHERE rt.revokedAt IS NOT NULL OR rt.isCompromised = true")
-    List<RefreshToken> findRevokedOrCompromisedTokens();
+    @Query(value = """
+            SELECT COUNT(*) AS total,
+                   COUNT(*) FILTER (WHERE expires_at > :now AND revoked_at IS NULL AND is_compromised = FALSE) AS active,
+                   COUNT(*) FILTER (WHERE expires_at <= :now) AS expired,
+                   COUNT(*) FILTER (WHERE expires_at > :now AND (revoked_at IS NOT NULL OR is_compromised = TRUE)) AS revoked
+            FROM refresh_tokens
+            """, nativeQuery = true)
+    TokenCounts countTokens(@Param("now") Instant now);
 
-    @Modifying
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
     @Query("UPDATE RefreshToken rt SET rt.revokedAt = :revokedAt, rt.revokedReason = :reason WHERE rt.familyId = :familyId")
-    void revokeAllTokensInFamily(@Param("familyId") String familyId, @Param("revokedAt") Instant revokedAt, @Param("reason") String reason);
+    int revokeAllTokensInFamily(@Param("familyId") String familyId, @Param("revokedAt") Instant revokedAt, @Param("reason") String reason);
 
-    @Modifying
-    @Query("DELETE FROM RefreshToken rt WHERE rt.expiresAt < :cutoff")
-    int deleteExpiredTokens(@Param("cutoff") Instant cutoff);
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE RefreshToken rt SET rt.revokedAt = :revokedAt, rt.revokedReason = :reason WHERE rt.userId = :userId AND rt.userRole = :userRole AND rt.revokedAt IS NULL")
+    int revokeAllUserTokens(@Param("userId") Long userId, @Param("userRole") UserRole userRole, @Param("revokedAt") Instant revokedAt, @Param("reason") String reason);
 
-    @Modifying
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
     @Query("UPDATE RefreshToken rt SET rt.isCompromised = true, rt.revokedAt = :revokedAt, rt.revokedReason= 'Token compromised' WHERE rt.familyId = :familyId")
-    void markFamilyAsCompromised(@Param("familyId") String familyId, @Param("revokedAt") Instant revokedAt);
+    int markFamilyAsCompromised(@Param("familyId") String familyId, @Param("revokedAt") Instant revokedAt);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = """
+            UPDATE refresh_tokens rt
+            SET revoked_at = :now, revoked_reason = :reason
+            FROM (SELECT id, expires_at,
+                         row_number() OVER (ORDER BY created_at DESC, id DESC) AS position
+                  FROM refresh_tokens
+                  WHERE user_id = :userId
+                    AND user_role = :userRole
+                    AND revoked_at IS NULL
+                    AND is_compromised = FALSE
+                    AND expires_at > :now) ranked
+            WHERE rt.id = ranked.id
+              AND rt.expires_at = ranked.expires_at
+              AND ranked.position > :keep
+            """, nativeQuery = true)
+    int revokeExcessTokens(@Param("userId") Long userId,
+                           @Param("userRole") String userRole,
+                           @Param("keep") int keep,
+                           @Param("now") Instant now,
+                           @Param("reason") String reason);
+
+    interface TokenCounts {
+        long getTotal();
+
+        long getActive();
+
+        long getExpired();
 
-    boolean existsByTokenHash(String tokenHash);
+        long getRevoked();
+    }
 }
\ No newline at end of file
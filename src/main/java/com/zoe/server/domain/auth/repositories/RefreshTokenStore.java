@@ -0,0 +1,89 @@
+package com.zoe.server.domain.auth.repositories;
+
+import com.zoe.server.domain.auth.dtos.TokenStatsDto;
+import com.zoe.server.domain.auth.models.RefreshToken;
+import com.zoe.server.domain.auth.models.RefreshTokenUsage;
+import com.zoe.server.domain.auth.models.RefreshTokenWithAccount;
+import com.zoe.server.domain.user.enums.UserRole;
+import com.zoe.server.domain.user.models.UserAuthView;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Storage contract for refresh tokens. {@link JpaRefreshTokenStore} keeps them in
+ * the database; {@link InMemoryRefreshTokenStore} keeps them on the heap for
+ * single-node deployments and tests. Both are exercised by the same contract tests.
+ * <p>
+ * Changes to a returned token are only guaranteed to be stored once it is passed
+ * back to {@link #save(RefreshToken)}.
+ */
+public interface RefreshTokenStore {
+
+    RefreshToken save(RefreshToken token);
+
+    Optional<RefreshToken> findBySelector(String selector);
+
+    Optional<RefreshToken> findByTokenHash(String tokenHash);
+
+    /**
+     * Finds the token by selector together with its user's current credentials.
+     * Backends that share a database with the users join them in the same query;
+     * others ask {@code accounts} for the user.
+     */
+    default Optional<RefreshTokenWithAccount> findBySelectorWithAccount(String selector,
+                                                                       Function<Long, Optional<UserAuthView>> accounts) {
+        return findBySelector(selector)
+                .map(token -> new RefreshTokenWithAccount(token, accounts.apply(token.getUserId()).orElse(null)));
+    }
+
+    List<RefreshToken> findValidTokensByUser(Long userId, UserRole userRole, Instant now);
+
+    void delete(RefreshToken token);
+
+    /**
+     * Claims the token with {@code oldTokenId} and {@code oldExpiresAt} if it is
+     * still valid at {@code now} and stores {@code replacement} in the same family,
+     * as one atomic operation. The expiry identifies the token together with its id,
+     * as in {@link RefreshTokenUsage}.
+     * Returns the stored replacement, or empty if the old token could not be claimed
+     * because it was already rotated, revoked or expired.
+     */
+    Optional<RefreshToken> rotate(Long oldTokenId, Instant oldExpiresAt, RefreshToken replacement, Instant now);
+
+    int revokeFamily(String familyId, Instant revokedAt, String reason);
+
+    /**
+     * Revokes every token of the user that is not already revoked, keeping the
+     * reason recorded on earlier revocations.
+     */
+    int revokeUser(Long userId, UserRole userRole, Instant revokedAt, String reason);
+
+    int markFamilyAsCompromised(String familyId, Instant revokedAt);
+
+    /**
+     * Revokes every token of the user that is still valid at {@code now} except the
+     * {@code keep} most recently created ones, and returns how many were revoked.
+     */
+    int revokeExcessTokens(Long userId, UserRole userRole, int keep, Instant now, String reason);
+
+    /**
+     * Removes tokens that expired before {@code cutoff}. Backends may remove expired
+     * tokens in coarser units and keep some of them a little longer. The result is
+     * the number of tokens removed, which may be an estimate.
+     */
+    int purgeExpired(Instant cutoff);
+
+    /**
+     * Adds accumulated uses to the tokens' {@code useCount} and advances
+     * {@code lastUsedAt}. Tokens that no longer exist are skipped.
+     */
+    void recordUsage(List<RefreshTokenUsage> usage);
+
+    /**
+     * Counts tokens by state as of {@code now}, in a single pass over the store.
+     */
+    TokenStatsDto countTokens(Instant now);
+}
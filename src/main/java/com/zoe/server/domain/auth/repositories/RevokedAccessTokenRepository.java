@@ -0,0 +1,23 @@
+package com.zoe.server.domain.auth.repositories;
+
+import com.zoe.server.domain.auth.models.RevokedAccessToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface RevokedAccessTokenRepository extends JpaRepository<RevokedAccessToken, String> {
+
+    List<RevokedAccessToken> findByExpiresAtAfter(Instant now);
+
+    List<RevokedAccessToken> findByRevokedAtAfterAndExpiresAtAfter(Instant revokedAfter, Instant now);
+
+    @Modifying
+    @Query("DELETE FROM RevokedAccessToken rat WHERE rat.expiresAt < :cutoff")
+    int deleteExpired(@Param("cutoff") Instant cutoff);
+}
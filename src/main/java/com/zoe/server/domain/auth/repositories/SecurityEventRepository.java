@@ -0,0 +1,94 @@
+package com.zoe.server.domain.auth.repositories;
+
+import com.zoe.server.domain.auth.events.SecurityEvent;
+import com.zoe.server.domain.auth.metrics.AuthMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.List;
+
+/**
+ * Append-only writer for the {@code security_events} table. Events are written
+ * with plain JDBC batches; there is no entity because rows are never read back or
+ * changed by the application.
+ * <p>
+ * Text columns are cut to their size in V9, since subjects and details can come
+ * straight from a request. A batch that is still rejected as a whole is written
+ * row by row, so one bad row cannot take the rest of the batch with it.
+ */
+@Repository
+public class SecurityEventRepository {
+
+    private static final Logger logger = LoggerFactory.getLogger(SecurityEventRepository.class);
+
+    private static final String INSERT = """
+            INSERT INTO security_events (event_type, user_id, subject, source_ip, detail, occurred_at)
+            VALUES (?, ?, ?, ?, ?, ?)
+            """;
+    private static final int SUBJECT_LENGTH = 255;
+    private static final int SOURCE_IP_LENGTH = 45;
+    private static final int DETAIL_LENGTH = 255;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final AuthMetrics authMetrics;
+
+    public SecurityEventRepository(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                                   AuthMetrics authMetrics) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.authMetrics = authMetrics;
+    }
+
+    /**
+     * Inserts the events and returns how many of them were rejected by the
+     * database. Failures that are not about the rows themselves, such as a lost
+     * connection, are thrown so the caller can retry the whole batch.
+     */
+    public int insertBatch(List<SecurityEvent> events) {
+        try {
+            // One transaction, so a failed batch leaves nothing behind to be written twice
+            authMetrics.timeStatement("security-events.insert-batch", () -> transactionTemplate.execute(status ->
+                    jdbcTemplate.batchUpdate(INSERT, events, events.size(), SecurityEventRepository::bind)));
+            return 0;
+        } catch (DataIntegrityViolationException e) {
+            logger.warn("Security event batch of {} was rejected, writing it row by row", events.size(), e);
+        }
+        int rejected = 0;
+        for (SecurityEvent event : events) {
+            try {
+                authMetrics.timeStatement("security-events.insert",
+                        () -> jdbcTemplate.update(INSERT, statement -> bind(statement, event)));
+            } catch (DataIntegrityViolationException e) {
+                rejected++;
+                logger.error("Dropped security event {} for user {}", event.type(), event.userId(), e);
+            }
+        }
+        return rejected;
+    }
+
+    private static void bind(PreparedStatement statement, SecurityEvent event) throws SQLException {
+        statement.setString(1, event.type().name());
+        if (event.userId() != null) {
+            statement.setLong(2, event.userId());
+        } else {
+            statement.setNull(2, Types.BIGINT);
+        }
+        statement.setString(3, truncate(event.subject(), SUBJECT_LENGTH));
+        statement.setString(4, truncate(event.sourceIp(), SOURCE_IP_LENGTH));
+        statement.setString(5, truncate(event.detail(), DETAIL_LENGTH));
+        statement.setTimestamp(6, Timestamp.from(event.occurredAt()));
+    }
+
+    private static String truncate(String value, int length) {
+        return value == null || value.length() <= length ? value : value.substring(0, length);
+    }
+}
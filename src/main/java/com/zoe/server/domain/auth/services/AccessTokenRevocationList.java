@@ -0,0 +1,121 @@
+package com.zoe.server.domain.auth.services;
+
+import com.zoe.server.domain.auth.models.RevokedAccessToken;
+import com.zoe.server.domain.auth.repositories.RevokedAccessTokenRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Node-local set of revoked access-token ids ({@code jti}), consulted by
+ * {@code JwtAuthFilter} on every request without touching the database.
+ * <p>
+ * Entries are grouped into buckets by the token's expiry, so a lookup probes
+ * exactly one bucket and expired entries are dropped a whole bucket at a time.
+ * Memory is therefore bounded by the number of revoked tokens that have not yet
+ * expired. The {@code revoked_access_tokens} table is the durable copy: it is
+ * loaded at startup and polled so revocations made on other nodes propagate.
+ */
+@Component
+public class AccessTokenRevocationList implements MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(AccessTokenRevocationList.class);
+
+    private final RevokedAccessTokenRepository revokedAccessTokenRepository;
+    private final long bucketMillis;
+    private final ConcurrentHashMap<Long, Set<String>> buckets = new ConcurrentHashMap<>();
+    private volatile Instant lastSync = Instant.EPOCH;
+
+    public AccessTokenRevocationList(RevokedAccessTokenRepository revokedAccessTokenRepository,
+                                     @Value("${jwt.revocation.bucket-width:PT1M}") Duration bucketWidth) {
+        this.revokedAccessTokenRepository = revokedAccessTokenRepository;
+        this.bucketMillis = bucketWidth.toMillis();
+    }
+
+    @PostConstruct
+    public void rebuild() {
+        Instant now = Instant.now();
+        int loaded = 0;
+        for (RevokedAccessToken revoked : revokedAccessTokenRepository.findByExpiresAtAfter(now)) {
+            add(revoked.getJti(), revoked.getExpiresAt());
+            loaded++;
+        }
+        lastSync = now;
+        logger.info("Loaded {} revoked access tokens", loaded);
+    }
+
+    public boolean isRevoked(String jti, Date expiresAt) {
+        if (jti == null || expiresAt == null) {
+            return false;
+        }
+        Set<String> bucket = buckets.get(bucketOf(expiresAt.getTime()));
+        return bucket != null && bucket.contains(jti);
+    }
+
+    @Transactional
+    public void revoke(String jti, Long userId, Date expiresAt) {
+        if (jti == null || expiresAt == null || expiresAt.toInstant().isBefore(Instant.now())) {
+            return;
+        }
+        add(jti, expiresAt.toInstant());
+        revokedAccessTokenRepository.save(new RevokedAccessToken(jti, userId, expiresAt.toInstant(), Instant.now()));
+        logger.debug("Revoked access token {} for user {}", jti, userId);
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.revocation.sync-interval:PT10S}")
+    public void syncFromDatabase() {
+        Instant now = Instant.now();
+        // Overlap the previous window a little so rows committed late are not missed
+        Instant since = lastSync.minusSeconds(5);
+        for (RevokedAccessToken revoked : revokedAccessTokenRepository.findByRevokedAtAfterAndExpiresAtAfter(since, now)) {
+            add(revoked.getJti(), revoked.getExpiresAt());
+        }
+        lastSync = now;
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.revocation.bucket-width:PT1M}")
+    public void dropExpiredBuckets() {
+        long currentBucket = bucketOf(System.currentTimeMillis());
+        buckets.keySet().removeIf(bucket -> bucket < currentBucket);
+    }
+
+    @Scheduled(cron = "0 30 2 * * ?") // 2:30 AM daily
+    @Transactional
+    public void cleanupExpiredRows() {
+        int deleted = revokedAccessTokenRepository.deleteExpired(Instant.now());
+        if (deleted > 0) {
+            logger.info("Cleaned up {} expired access token revocations", deleted);
+        }
+    }
+
+    public long size() {
+        return buckets.values().stream().mapToLong(Set::size).sum();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("auth.access-token.revocations", this, AccessTokenRevocationList::size)
+                .register(registry);
+    }
+
+    private void add(String jti, Instant expiresAt) {
+        buckets.computeIfAbsent(bucketOf(expiresAt.toEpochMilli()), key -> ConcurrentHashMap.newKeySet()).add(jti);
+    }
+
+    private long bucketOf(long epochMillis) {
+        return epochMillis / bucketMillis;
+    }
+}
@@ -1,21 +1,40 @@
 package com.zoe.server.domain.auth.services;
 
 import com.zoe.server.domain.auth.dtos.*;
+import com.zoe.server.domain.auth.events.SecurityEvent;
+import com.zoe.server.domain.auth.events.SecurityEventPublisher;
+import com.zoe.server.domain.auth.events.SecurityEventType;
+import com.zoe.server.domain.auth.exceptions.AccountLockedException;
 import com.zoe.server.domain.auth.exceptions.AuthenticationException;
+import com.zoe.server.domain.auth.exceptions.EmailAlreadyRegisteredException;
 import com.zoe.server.domain.auth.exceptions.InvalidCredentialsException;
+import com.zoe.server.domain.auth.exceptions.InvalidRefreshTokenException;
+import com.zoe.server.domain.auth.exceptions.LoginThrottledException;
 import com.zoe.server.domain.auth.mappers.AuthMapper;
+import com.zoe.server.domain.auth.metrics.AuthMetrics;
+import com.zoe.server.domain.auth.models.RotatedRefreshToken;
 import com.zoe.server.domain.user.enums.UserRole;
 import com.zoe.server.domain.user.models.CustomUserDetails;
 import com.zoe.server.domain.user.models.User;
+import com.zoe.server.domain.user.models.UserAuthView;
 import com.zoe.server.domain.user.models.UserCredentials;
+import com.zoe.server.domain.user.repositories.UserConstraints;
 import com.zoe.server.domain.user.repositories.UserRepository;
+import com.zoe.server.domain.user.services.UserPrincipalCache;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.LockedException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.util.Objects;
 
@@ -28,6 +47,12 @@ public class AuthService {
     private final PasswordEncoder passwordEncoder;
     private final UserRepository userRepository;
     private final AuthMapper authMapper;
+    private final AuthMetrics authMetrics;
+    private final AccessTokenRevocationList accessTokenRevocationList;
+    private final SecurityEventPublisher securityEventPublisher;
+    private final LoginAttemptTracker loginAttemptTracker;
+    private final UserPrincipalCache userPrincipalCache;
+    private final TransactionTemplate transactionTemplate;
 
     public AuthService(
             AuthenticationManager authManager,
@@ -35,7 +60,13 @@ public class AuthService {
             RefreshTokenService refreshTokenService,
             PasswordEncoder passwordEncoder,
             UserRepository userRepository,
-            AuthMapper authMapper
+            AuthMapper authMapper,
+            AuthMetrics authMetrics,
+            AccessTokenRevocationList accessTokenRevocationList,
+            SecurityEventPublisher securityEventPublisher,
+            LoginAttemptTracker loginAttemptTracker,
+            UserPrincipalCache userPrincipalCache,
+            TransactionTemplate transactionTemplate
     ) {
         this.authManager = authManager;
         this.jwtService = jwtService;
@@ -43,26 +74,44 @@ public class AuthService {
         this.passwordEncoder = passwordEncoder;
         this.userRepository = userRepository;
         this.authMapper = authMapper;
+        this.authMetrics = authMetrics;
+        this.accessTokenRevocationList = accessTokenRevocationList;
+        this.securityEventPublisher = securityEventPublisher;
+        this.loginAttemptTracker = loginAttemptTracker;
+        this.userPrincipalCache = userPrincipalCache;
+        this.transactionTemplate = transactionTemplate;
     }
 
-    @Transactional
+    @Transactional(noRollbackFor = InvalidRefreshTokenException.class)
     public AuthResponseDto refreshToken(String oldToken) {
+        return authMetrics.timeRefresh(() -> doRefreshToken(oldToken));
+    }
+
+    private AuthResponseDto doRefreshToken(String oldToken) {
         if (oldToken == null || oldToken.trim().isEmpty()) {
             throw new AuthenticationException("Refresh token cannot be null or empty");
         }
-        String email = jwtService.extractEmailFromRefreshToken(oldToken);
-        Long userId = refreshTokenService.extractUserIdFromRefreshToken(oldToken);
-        UserRole userRole = refreshTokenService.extractUserRoleFromRefreshToken(oldToken);
-        String newAccessToken = jwtService.generateAccessToken(email);
-        String newRefreshToken = refreshTokenService.createRefreshToken(userId, userRole);
-        return new AuthResponseDto(newAccessToken, newRefreshToken);
+        RotatedRefreshToken rotated = refreshTokenService.rotateRefreshToken(oldToken);
+        String newAccessToken = jwtService.generateAccessToken(
+                rotated.userId(), rotated.email(), rotated.userRole(), rotated.credentialVersion());
+        return new AuthResponseDto(newAccessToken, rotated.token());
     }
 
-    @Transactional
     public AuthResponseDto login(AuthRequestDto request) {
+        return login(request, null);
+    }
+
+    // Not @Transactional: no connection is held while the password hash is checked
+    public AuthResponseDto login(AuthRequestDto request, String sourceIp) {
+        return authMetrics.timeLogin(() -> doLogin(request, sourceIp));
+    }
+
+    private AuthResponseDto doLogin(AuthRequestDto request, String sourceIp) {
         if (request.getEmail() == null || request.getPassword() == null) {
             throw new AuthenticationException("Email and password cannot be null");
         }
+        // Throttled attempts are rejected before the password hash is checked
+        loginAttemptTracker.checkAllowed(request.getEmail(), sourceIp);
         try {
             var authentication = authManager.authenticate(
                     new UsernamePasswordAuthenticationToken(request.getEmail() , request.getPassword() )
@@ -71,51 +120,111 @@ public class AuthService {
             String userEmail;
             Long id;
             UserRole userRole;
+            int credentialVersion;
             if (principal instanceof CustomUserDetails userDetails) {
                 userEmail = userDetails.getUsername();
-                id = userDetails.getUser().getId();
-                userRole = userDetails.getUser().getUserCredentials().getUserRole();
+                id = userDetails.getAccount().id();
+                userRole = userDetails.getAccount().role();
+                credentialVersion = userDetails.getAccount().credentialVersion();
             } else {
                 throw new AuthenticationException("Invalid principal type");
             }
-            String accessToken = jwtService.generateAccessToken(userEmail);
-            String refreshToken = refreshTokenService.createRefreshToken(id, userRole);
+            String accessToken = jwtService.generateAccessToken(id, userEmail, userRole, credentialVersion);
+            String refreshToken = refreshTokenService.createRefreshToken(id, userRole, userEmail, credentialVersion);
+            loginAttemptTracker.recordSuccess(userEmail);
+            securityEventPublisher.publish(SecurityEvent.of(SecurityEventType.LOGIN_SUCCEEDED, id, userEmail, sourceIp, null));
             return new AuthResponseDto(accessToken, refreshToken);
         } catch (BadCredentialsException e) {
+            securityEventPublisher.publish(SecurityEvent.of(SecurityEventType.LOGIN_FAILED, null, request.getEmail(), sourceIp, "bad credentials"));
+            if (loginAttemptTracker.recordFailure(request.getEmail(), sourceIp)) {
+                userPrincipalCache.onAccountLocked(request.getEmail());
+                securityEventPublisher.publish(SecurityEvent.of(SecurityEventType.ACCOUNT_LOCKED, null, request.getEmail(), sourceIp, "too many failed logins"));
+            }
             throw new InvalidCredentialsException("Invalid email or password", e);
+        } catch (LockedException e) {
+            // Locked by another node or by an administrator; the password was not checked
+            throw accountLocked(request.getEmail());
         }
     }
 
-    @Transactional
-    public RegisterResponseDto registerPsychologist(RegisterPsychologistRequestDto request) {
-        if (userRepository.existsByUserCredentials_Email(request.getEmail())) {
-            throw new IllegalArgumentException("Email já registrado");
+    /**
+     * Retry-After comes from the account's own {@code locked_until}, which may be
+     * set by an administrator rather than by the login throttle.
+     */
+    private AuthenticationException accountLocked(String email) {
+        Instant lockedUntil = userRepository.findAuthViewByEmail(email)
+                .map(UserAuthView::lockedUntil)
+                .orElse(null);
+        if (lockedUntil == null) {
+            return new AccountLockedException("Account is locked");
         }
+        long retryAfterSeconds = Duration.between(Instant.now(), lockedUntil).plusMillis(999).toSeconds();
+        return new LoginThrottledException("Account is locked", Math.max(1, retryAfterSeconds));
+    }
+
+    // Not @Transactional: the password is hashed before a connection is taken
+    public RegisterResponseDto registerPsychologist(RegisterPsychologistRequestDto request) {
+        return authMetrics.timeRegistration(UserRole.PSYCHOLOGIST, () -> doRegisterPsychologist(request));
+    }
+
+    private RegisterResponseDto doRegisterPsychologist(RegisterPsychologistRequestDto request) {
         if(!Objects.equals(request.getPassword(), request.getConfirmPassword())) throw new IllegalArgumentException("Passwords do not match!");
-        User user = authMapper.toPsychologistUser(request);
+        String passwordHash = passwordEncoder.encode(request.getPassword());
+        User user = authMapper.toPsychologistUser(request, passwordHash);
         user.getPsychologist().setUser(user);
-        userRepository.save(user);
+        saveNewUser(user, UserRole.PSYCHOLOGIST);
         return authMapper.toRegisterResponse(user);
     }
 
-    @Transactional
     public RegisterResponseDto registerPatient(RegisterPatientRequestDto request) {
-        if (userRepository.existsByUserCredentials_Email(request.getEmail())) {
-            throw new IllegalArgumentException("Email already register");
-        }
+        return authMetrics.timeRegistration(UserRole.PATIENT, () -> doRegisterPatient(request));
+    }
+
+    private RegisterResponseDto doRegisterPatient(RegisterPatientRequestDto request) {
         if(!Objects.equals(request.getPassword(), request.getConfirmPassword())) throw new IllegalArgumentException("Passwords do not match!");
-        User user = authMapper.toPatientUser(request);
+        String passwordHash = passwordEncoder.encode(request.getPassword());
+        User user = authMapper.toPatientUser(request, passwordHash);
         user.getPatient().setUser(user);
-        userRepository.save(user);
+        saveNewUser(user, UserRole.PATIENT);
         return authMapper.toRegisterResponse(user);
     }
 
+    /**
+     * Inserts the user in its own short transaction. A taken email is detected by
+     * the unique constraint rather than by a query beforehand, which also closes
+     * the race between two sign-ups with the same address.
+     */
+    private void saveNewUser(User user, UserRole role) {
+        try {
+            authMetrics.timeRegistrationConnectionHold(role,
+                    () -> transactionTemplate.execute(status -> userRepository.saveAndFlush(user)));
+        } catch (DataIntegrityViolationException e) {
+            if (UserConstraints.violatesUniqueEmail(e)) {
+                throw new EmailAlreadyRegisteredException("Email already registered", e);
+            }
+            throw e;
+        }
+    }
+
     @Transactional
-    public void logout(String refreshToken) {
+    public void logout(String refreshToken, String accessToken) {
         if (refreshToken == null || refreshToken.trim().isEmpty()) {
             throw new AuthenticationException("Refresh token cannot be null or empty");
         }
         refreshTokenService.revokeRefreshToken(refreshToken, "User logout");
+        Long userId = null;
+        String email = null;
+        if (accessToken != null && !accessToken.isBlank()) {
+            try {
+                Claims claims = jwtService.verifyAndParse(accessToken);
+                userId = claims.get(JwtService.CLAIM_USER_ID, Long.class);
+                email = claims.getSubject();
+                accessTokenRevocationList.revoke(claims.getId(), userId, claims.getExpiration());
+            } catch (JwtException e) {
+                // An expired or invalid access token can no longer be used anyway
+            }
+        }
+        securityEventPublisher.publish(SecurityEvent.of(SecurityEventType.LOGOUT, userId, email, null));
     }
     private UserCredentials buildUserCredentials(String email, String password, UserRole role) {
         UserCredentials credentials = new UserCredentials();
@@ -0,0 +1,370 @@
+package com.zoe.server.domain.auth.services;
+
+import com.zoe.server.domain.auth.repositories.JwtSigningKeyStore;
+import com.zoe.server.domain.auth.repositories.JwtSigningKeyStore.StoredSigningKey;
+import jakarta.annotation.PostConstruct;
+import lombok.Getter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.MessageDigest;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.SecureRandom;
+import java.security.interfaces.ECPublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * ES256 signing keys for access tokens, selected by {@code kid}.
+ * <p>
+ * The ring always holds one key that signs, one pre-published key that takes over
+ * at the next rotation, and the retired keys whose tokens may still be in flight.
+ * All of them are published through the JWKS endpoint, so verifiers that cache the
+ * key set already know the next key before it starts signing.
+ * <p>
+ * Keys live in a {@link JwtSigningKeyStore} shared by every node, with private
+ * keys encrypted under {@code jwt.key-encryption-secret}, so they survive restarts
+ * and tokens signed on one node verify on all others. Rotation happens once per
+ * interval for the whole cluster; each node reloads the key set on a schedule and
+ * whenever it meets a {@code kid} it does not know yet.
+ */
+@Component
+public class JwtKeyRing {
+
+    private static final Logger logger = LoggerFactory.getLogger(JwtKeyRing.class);
+    private static final String CURVE = "secp256r1";
+    private static final int COORDINATE_LENGTH = 32;
+    private static final int GCM_IV_LENGTH = 12;
+    private static final int GCM_TAG_BITS = 128;
+
+    private final boolean enabled;
+    private final JwtSigningKeyStore keyStore;
+    private final Duration rotationInterval;
+    private final Duration retiredKeyLifetime;
+    private final long unknownKidReloadNanos;
+    private final SecretKey encryptionKey;
+    private final SecureRandom random = new SecureRandom();
+    private final AtomicLong lastReload = new AtomicLong();
+
+    private volatile State state = new State(null, null, List.of());
+
+    public JwtKeyRing(JwtSigningKeyStore keyStore,
+                      @Value("${jwt.signing-algorithm:HS256}") String signingAlgorithm,
+                      @Value("${jwt.access-token-expiration:900000}") long accessTokenExpiration,
+                      @Value("${jwt.key-rotation.clock-skew:PT1M}") Duration clockSkew,
+                      @Value("${jwt.key-rotation.interval:PT24H}") Duration rotationInterval,
+                      @Value("${jwt.key-rotation.unknown-kid-reload-interval:PT5S}") Duration unknownKidReloadInterval,
+                      @Value("${jwt.key-encryption-secret:${jwt.secret:}}") String encryptionSecret) {
+        this.enabled = "ES256".equalsIgnoreCase(signingAlgorithm);
+        this.keyStore = keyStore;
+        this.rotationInterval = rotationInterval;
+        this.retiredKeyLifetime = Duration.ofMillis(accessTokenExpiration).plus(clockSkew);
+        this.unknownKidReloadNanos = unknownKidReloadInterval.toNanos();
+        this.encryptionKey = enabled ? encryptionKey(encryptionSecret) : null;
+    }
+
+    @PostConstruct
+    public void init() {
+        if (!enabled) {
+            return;
+        }
+        List<StoredSigningKey> stored = keyStore.exclusively(() -> {
+            List<StoredSigningKey> keys = keyStore.findAll();
+            Instant now = Instant.now();
+            if (keys.stream().noneMatch(JwtKeyRing::isCurrent)) {
+                keyStore.save(withActivatedAt(generateKey(now), now));
+            }
+            if (keys.stream().noneMatch(JwtKeyRing::isNext)) {
+                keyStore.save(generateKey(now));
+            }
+            return keyStore.findAll();
+        });
+        load(stored);
+        logger.info("Loaded JWT signing keys, signing with kid {}", state.current.getKid());
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public SigningKey currentSigningKey() {
+        SigningKey current = state.current;
+        if (current == null) {
+            throw new IllegalStateException("Asymmetric signing is disabled (jwt.signing-algorithm is not ES256)");
+        }
+        return current;
+    }
+
+    public Key verificationKey(String kid) {
+        if (kid == null) {
+            return null;
+        }
+        Key key = findPublished(kid);
+        if (key == null && enabled && reloadAllowed()) {
+            // Another node may have rotated since the last scheduled reload
+            reload();
+            key = findPublished(kid);
+        }
+        return key;
+    }
+
+    public List<SigningKey> publishedKeys() {
+        return state.published();
+    }
+
+    /**
+     * Promotes the pre-published key unless another node already rotated within
+     * this interval, then reloads the key set.
+     */
+    @Scheduled(fixedDelayString = "${jwt.key-rotation.interval:PT24H}",
+            initialDelayString = "${jwt.key-rotation.interval:PT24H}")
+    public void rotate() {
+        if (!enabled) {
+            return;
+        }
+        List<StoredSigningKey> stored = keyStore.exclusively(() -> {
+            Instant now = Instant.now();
+            List<StoredSigningKey> keys = keyStore.findAll();
+            StoredSigningKey current = keys.stream().filter(JwtKeyRing::isCurrent)
+                    .max(Comparator.comparing(StoredSigningKey::activatedAt)).orElse(null);
+            StoredSigningKey next = keys.stream().filter(JwtKeyRing::isNext)
+                    .max(Comparator.comparing(StoredSigningKey::createdAt)).orElse(null);
+            if (current != null && current.activatedAt().plus(rotationInterval.dividedBy(2)).isAfter(now)) {
+                return keys;
+            }
+            if (current != null) {
+                keyStore.save(withRetiredAt(current, now));
+            }
+            keyStore.save(next != null ? withActivatedAt(next, now) : withActivatedAt(generateKey(now), now));
+            keyStore.save(generateKey(now));
+            for (StoredSigningKey key : keys) {
+                if (key.retiredAt() != null && !key.retiredAt().plus(retiredKeyLifetime).isAfter(now)) {
+                    keyStore.delete(key.kid());
+                }
+            }
+            logger.info("Rotated JWT signing key, now signing with kid {}", next != null ? next.kid() : "(new)");
+            return keyStore.findAll();
+        });
+        load(stored);
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.key-rotation.reload-interval:PT1M}",
+            initialDelayString = "${jwt.key-rotation.reload-interval:PT1M}")
+    public void reload() {
+        if (!enabled) {
+            return;
+        }
+        lastReload.set(System.nanoTime());
+        try {
+            load(keyStore.findAll());
+        } catch (RuntimeException e) {
+            logger.warn("Failed to reload JWT signing keys, keeping the current set", e);
+        }
+    }
+
+    public static Map<String, Object> toJwk(SigningKey key) {
+        ECPublicKey publicKey = (ECPublicKey) key.getKeyPair().getPublic();
+        Map<String, Object> jwk = new LinkedHashMap<>();
+        jwk.put("kty", "EC");
+        jwk.put("crv", "P-256");
+        jwk.put("kid", key.getKid());
+        jwk.put("use", "sig");
+        jwk.put("alg", "ES256");
+        jwk.put("x", coordinate(publicKey.getW().getAffineX()));
+        jwk.put("y", coordinate(publicKey.getW().getAffineY()));
+        return jwk;
+    }
+
+    private Key findPublished(String kid) {
+        for (SigningKey key : state.published()) {
+            if (key.getKid().equals(kid)) {
+                return key.getKeyPair().getPublic();
+            }
+        }
+        return null;
+    }
+
+    private boolean reloadAllowed() {
+        long last = lastReload.get();
+        long now = System.nanoTime();
+        return now - last >= unknownKidReloadNanos && lastReload.compareAndSet(last, now);
+    }
+
+    private void load(List<StoredSigningKey> stored) {
+        Instant now = Instant.now();
+        SigningKey current = null;
+        SigningKey next = null;
+        List<SigningKey> retired = new ArrayList<>();
+        for (StoredSigningKey key : stored) {
+            if (isCurrent(key)) {
+                if (current == null || key.activatedAt().isAfter(current.getActivatedAt())) {
+                    if (current != null) {
+                        retired.add(current);
+                    }
+                    current = toSigningKey(key, true);
+                } else {
+                    retired.add(toSigningKey(key, false));
+                }
+            } else if (isNext(key)) {
+                next = toSigningKey(key, false);
+            } else if (key.retiredAt().plus(retiredKeyLifetime).isAfter(now)) {
+                retired.add(toSigningKey(key, false));
+            }
+        }
+        if (current == null) {
+            throw new IllegalStateException("No active JWT signing key in the key store");
+        }
+        this.state = new State(current, next, List.copyOf(retired));
+    }
+
+    private SigningKey toSigningKey(StoredSigningKey stored, boolean withPrivateKey) {
+        try {
+            KeyFactory keyFactory = KeyFactory.getInstance("EC");
+            PublicKey publicKey = keyFactory.generatePublic(new X509EncodedKeySpec(stored.publicKey()));
+            PrivateKey privateKey = withPrivateKey
+                    ? keyFactory.generatePrivate(new PKCS8EncodedKeySpec(decrypt(stored.encryptedPrivateKey())))
+                    : null;
+            return new SigningKey(stored.kid(), new KeyPair(publicKey, privateKey),
+                    stored.createdAt(), stored.activatedAt(), stored.retiredAt());
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Unable to read JWT signing key " + stored.kid()
+                    + "; is jwt.key-encryption-secret the one it was stored with?", e);
+        }
+    }
+
+    private StoredSigningKey generateKey(Instant now) {
+        try {
+            KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+            generator.initialize(new ECGenParameterSpec(CURVE));
+            KeyPair keyPair = generator.generateKeyPair();
+            return new StoredSigningKey(thumbprint((ECPublicKey) keyPair.getPublic()),
+                    keyPair.getPublic().getEncoded(), encrypt(keyPair.getPrivate().getEncoded()), now, null, null);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Unable to generate ES256 signing key", e);
+        }
+    }
+
+    private byte[] encrypt(byte[] plain) throws GeneralSecurityException {
+        byte[] iv = new byte[GCM_IV_LENGTH];
+        random.nextBytes(iv);
+        Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+        cipher.init(Cipher.ENCRYPT_MODE, encryptionKey, new GCMParameterSpec(GCM_TAG_BITS, iv));
+        byte[] encrypted = cipher.doFinal(plain);
+        return ByteBuffer.allocate(iv.length + encrypted.length).put(iv).put(encrypted).array();
+    }
+
+    private byte[] decrypt(byte[] stored) throws GeneralSecurityException {
+        Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+        cipher.init(Cipher.DECRYPT_MODE, encryptionKey, new GCMParameterSpec(GCM_TAG_BITS, stored, 0, GCM_IV_LENGTH));
+        return cipher.doFinal(stored, GCM_IV_LENGTH, stored.length - GCM_IV_LENGTH);
+    }
+
+    private static SecretKey encryptionKey(String secret) {
+        if (secret == null || secret.getBytes(StandardCharsets.UTF_8).length < 32) {
+            throw new IllegalStateException("jwt.key-encryption-secret (or jwt.secret) must be at least 32 bytes for ES256");
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(secret.getBytes(StandardCharsets.UTF_8));
+            return new SecretKeySpec(digest, "AES");
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("SHA-256 algorithm not available", e);
+        }
+    }
+
+    private static boolean isCurrent(StoredSigningKey key) {
+        return key.activatedAt() != null && key.retiredAt() == null;
+    }
+
+    private static boolean isNext(StoredSigningKey key) {
+        return key.activatedAt() == null && key.retiredAt() == null;
+    }
+
+    private static StoredSigningKey withActivatedAt(StoredSigningKey key, Instant at) {
+        return new StoredSigningKey(key.kid(), key.publicKey(), key.encryptedPrivateKey(), key.createdAt(), at, null);
+    }
+
+    private static StoredSigningKey withRetiredAt(StoredSigningKey key, Instant at) {
+        return new StoredSigningKey(key.kid(), key.publicKey(), key.encryptedPrivateKey(), key.createdAt(), key.activatedAt(), at);
+    }
+
+    // RFC 7638 JWK thumbprint, so the kid is stable for a given public key
+    private static String thumbprint(ECPublicKey publicKey) throws GeneralSecurityException {
+        String canonical = "{\"crv\":\"P-256\",\"kty\":\"EC\",\"x\":\"" + coordinate(publicKey.getW().getAffineX())
+                + "\",\"y\":\"" + coordinate(publicKey.getW().getAffineY()) + "\"}";
+        byte[] digest = MessageDigest.getInstance("SHA-256").digest(canonical.getBytes(StandardCharsets.UTF_8));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+    }
+
+    private static String coordinate(BigInteger value) {
+        byte[] bytes = value.toByteArray();
+        byte[] padded = new byte[COORDINATE_LENGTH];
+        int length = Math.min(bytes.length, COORDINATE_LENGTH);
+        System.arraycopy(bytes, bytes.length - length, padded, COORDINATE_LENGTH - length, length);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(padded);
+    }
+
+    @Getter
+    public static class SigningKey {
+        private final String kid;
+        private final KeyPair keyPair;
+        private final Instant createdAt;
+        private final Instant activatedAt;
+        private final Instant retiredAt;
+
+        public SigningKey(String kid, KeyPair keyPair, Instant createdAt, Instant activatedAt, Instant retiredAt) {
+            this.kid = kid;
+            this.keyPair = keyPair;
+            this.createdAt = createdAt;
+            this.activatedAt = activatedAt;
+            this.retiredAt = retiredAt;
+        }
+    }
+
+    private static final class State {
+        private final SigningKey current;
+        private final List<SigningKey> published;
+
+        private State(SigningKey current, SigningKey next, List<SigningKey> retired) {
+            this.current = current;
+            List<SigningKey> keys = new ArrayList<>();
+            if (current != null) {
+                keys.add(current);
+            }
+            if (next != null) {
+                keys.add(next);
+            }
+            keys.addAll(retired);
+            this.published = List.copyOf(keys);
+        }
+
+        private List<SigningKey> published() {
+            return published;
+        }
+    }
+}
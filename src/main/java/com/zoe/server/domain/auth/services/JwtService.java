@@ -1,21 +1,43 @@
 package com.zoe.server.domain.auth.services;
 
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.zoe.server.domain.user.enums.UserRole;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtBuilder;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import javax.crypto.SecretKey;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 @Service
-public class JwtService {
+public class JwtService implements MeterBinder {
 
-    @Value("${jwt.secret}")
+    public static final String CLAIM_USER_ID = "uid";
+    public static final String CLAIM_ROLE = "role";
+    public static final String CLAIM_CREDENTIAL_VERSION = "cv";
+
+    @Value("${jwt.secret:}")
     private String secretKeyString;
 
     @Value("${jwt.access-token-expiration:900000}")
@@ -24,10 +46,44 @@ public class JwtService {
     @Value("${jwt.refresh-token-expiration:604800000}")
     private long refreshTokenExpiration;
 
+    @Value("${jwt.verified-token-cache.enabled:false}")
+    private boolean verifiedTokenCacheEnabled;
+
+    @Value("${jwt.verified-token-cache.max-size:10000}")
+    private long verifiedTokenCacheMaxSize;
+
+    private final JwtKeyRing keyRing;
+
     private SecretKey secretKey;
 
+    private JwtParser parser;
+
+    private Cache<ByteBuffer, Claims> verifiedTokens;
+
+    public JwtService(JwtKeyRing keyRing) {
+        this.keyRing = keyRing;
+    }
+
     @PostConstruct
     public void init() {
+        if (keyRing.isEnabled()) {
+            this.parser = Jwts.parserBuilder()
+                    .setSigningKeyResolver(new KeyRingResolver())
+                    .build();
+        } else {
+            initSecretKey();
+        }
+
+        if (verifiedTokenCacheEnabled) {
+            this.verifiedTokens = Caffeine.newBuilder()
+                    .maximumSize(verifiedTokenCacheMaxSize)
+                    .expireAfter(new ExpiresAtClaim())
+                    .recordStats()
+                    .build();
+        }
+    }
+
+    private void initSecretKey() {
         if (secretKeyString == null || secretKeyString.trim().isEmpty()) {
             throw new IllegalStateException("jwt.secret is not configured. This property is required and must be set via environment variable or configuration file.");
         }
@@ -42,45 +98,126 @@ public class JwtService {
         }
 
         this.secretKey = Keys.hmacShaKeyFor(keyBytes);
+        // JwtParser is immutable and thread-safe, so one instance serves every request
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(secretKey)
+                .build();
     }
 
     public String generateAccessToken(String email) {
         return generateToken(email, accessTokenExpiration);
     }
 
+    public String generateAccessToken(Long userId, String email, UserRole role, int credentialVersion) {
+        return sign(Jwts.builder()
+                .setId(UUID.randomUUID().toString())
+                .setSubject(email)
+                .claim(CLAIM_USER_ID, userId)
+                .claim(CLAIM_ROLE, role.name())
+                .claim(CLAIM_CREDENTIAL_VERSION, credentialVersion)
+                .setIssuedAt(new Date())
+                .setExpiration(new Date(System.currentTimeMillis() + accessTokenExpiration)));
+    }
+
     private String generateToken(String subject, long expiration) {
-        return Jwts.builder()
+        return sign(Jwts.builder()
+                .setId(UUID.randomUUID().toString())
                 .setSubject(subject)
                 .setIssuedAt(new Date())
-                .setExpiration(new Date(System.currentTimeMillis() + expiration))
+                .setExpiration(new Date(System.currentTimeMillis() + expiration)));
+    }
+
+    private String sign(JwtBuilder builder) {
+        if (keyRing.isEnabled()) {
+            JwtKeyRing.SigningKey signingKey = keyRing.currentSigningKey();
+            return builder
+                    .setHeaderParam(JwsHeader.KEY_ID, signingKey.getKid())
+                    .signWith(signingKey.getKeyPair().getPrivate(), SignatureAlgorithm.ES256)
+                    .compact();
+        }
+        return builder
                 .signWith(secretKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
-    public String extractEmail(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(secretKey)
-                .build()
-                .parseClaimsJws(token)
-                .getBody()
-                .getSubject();
+    /**
+     * Verifies the signature and expiry of the token and returns its claims in a
+     * single parse. Throws {@link JwtException} when the token is not valid.
+     */
+    public Claims verifyAndParse(String token) {
+        if (verifiedTokens == null) {
+            return parser.parseClaimsJws(token).getBody();
+        }
+        ByteBuffer digest = digest(token);
+        Claims cached = verifiedTokens.getIfPresent(digest);
+        if (cached != null) {
+            return cached;
+        }
+        Claims claims = parser.parseClaimsJws(token).getBody();
+        if (claims.getExpiration() != null) {
+            verifiedTokens.put(digest, claims);
+        }
+        return claims;
     }
 
-    // Stub: Extract email from refresh token (implement JWT claim extraction here)
-    public String extractEmailFromRefreshToken(String refreshToken) {
-
-        return "email@example.com";
+    public String extractEmail(String token) {
+        return verifyAndParse(token).getSubject();
     }
 
     public boolean isTokenValid(String token) {
         try {
-            Jwts.parserBuilder()
-                    .setSigningKey(secretKey)
-                    .build()
-                    .parseClaimsJws(token);
+            verifyAndParse(token);
             return true;
         } catch (JwtException e) {
             return false;
         }
     }
-}
\ No newline at end of file
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        if (verifiedTokens != null) {
+            CaffeineCacheMetrics.monitor(registry, verifiedTokens, "verifiedTokens");
+        }
+    }
+
+    private static ByteBuffer digest(String token) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            return ByteBuffer.wrap(sha256.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 algorithm not available", e);
+        }
+    }
+
+    private final class KeyRingResolver extends SigningKeyResolverAdapter {
+        @Override
+        public Key resolveSigningKey(JwsHeader header, Claims claims) {
+            Key key = keyRing.verificationKey(header.getKeyId());
+            if (key == null) {
+                throw new JwtException("Unknown signing key id: " + header.getKeyId());
+            }
+            return key;
+        }
+    }
+
+    /**
+     * Keeps each verified token only until its own {@code exp} claim.
+     */
+    private static final class ExpiresAtClaim implements Expiry<ByteBuffer, Claims> {
+        @Override
+        public long expireAfterCreate(ByteBuffer key, Claims claims, long currentTime) {
+            long remainingMillis = claims.getExpiration().getTime() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, remainingMillis));
+        }
+
+        @Override
+        public long expireAfterUpdate(ByteBuffer key, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        @Override
+        public long expireAfterRead(ByteBuffer key, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,317 @@
+package com.zoe.server.domain.auth.services;
+
+import com.zoe.server.domain.auth.exceptions.LoginThrottledException;
+import com.zoe.server.domain.auth.repositories.LoginAttemptRepository;
+import com.zoe.server.domain.auth.repositories.LoginAttemptRepository.LoginAttemptState;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Counts failed logins per account and per source IP over a sliding window.
+ * <p>
+ * Windows live in lock-striped LRU maps, so memory stays bounded by
+ * {@code security.login-attempts.max-tracked} no matter how many emails or IPs an
+ * attacker cycles through. An account reaching {@code max-failures} inside the
+ * window is locked for {@code lockout-duration}; an IP reaching
+ * {@code max-failures-per-ip} is throttled for the same time without locking the
+ * accounts it targeted. Both are checked before the password is verified, so
+ * throttled attempts cost no BCrypt work.
+ * <p>
+ * Account state is written back to {@code user_credentials} in batches, on a
+ * schedule or once {@code flush-threshold} accounts are pending, so other nodes
+ * see the lock through {@code CustomUserDetails#isAccountNonLocked}.
+ */
+@Component
+public class LoginAttemptTracker implements MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoginAttemptTracker.class);
+
+    private static final int STRIPES = 64;
+
+    private final LoginAttemptRepository loginAttemptRepository;
+    private final TaskScheduler taskScheduler;
+    private final int maxFailures;
+    private final int maxFailuresPerIp;
+    private final long windowMillis;
+    private final long lockoutMillis;
+    private final int flushThreshold;
+    private final StripedWindows accounts;
+    private final StripedWindows sourceIps;
+    private final ConcurrentHashMap<String, LoginAttemptState> pending = new ConcurrentHashMap<>();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    private Counter lockoutCounter;
+    private Counter throttledCounter;
+
+    public LoginAttemptTracker(LoginAttemptRepository loginAttemptRepository,
+                               TaskScheduler taskScheduler,
+                               @Value("${security.login-attempts.max-failures:5}") int maxFailures,
+                               @Value("${security.login-attempts.max-failures-per-ip:50}") int maxFailuresPerIp,
+                               @Value("${security.login-attempts.window:PT15M}") Duration window,
+                               @Value("${security.login-attempts.lockout-duration:PT15M}") Duration lockoutDuration,
+                               @Value("${security.login-attempts.max-tracked:100000}") int maxTracked,
+                               @Value("${security.login-attempts.flush-threshold:500}") int flushThreshold) {
+        if (maxFailures < 1 || maxFailuresPerIp < 1) {
+            throw new IllegalArgumentException("Login failure thresholds must be positive");
+        }
+        this.loginAttemptRepository = loginAttemptRepository;
+        this.taskScheduler = taskScheduler;
+        this.maxFailures = maxFailures;
+        this.maxFailuresPerIp = maxFailuresPerIp;
+        this.windowMillis = window.toMillis();
+        this.lockoutMillis = lockoutDuration.toMillis();
+        this.flushThreshold = flushThreshold;
+        this.accounts = new StripedWindows(maxFailures, Math.max(1, maxTracked / STRIPES));
+        this.sourceIps = new StripedWindows(maxFailuresPerIp, Math.max(1, maxTracked / STRIPES));
+    }
+
+    /**
+     * Rejects the attempt if the account is locked or the source IP is throttled.
+     */
+    public void checkAllowed(String email, String sourceIp) {
+        checkAllowed(email, sourceIp, System.currentTimeMillis());
+    }
+
+    void checkAllowed(String email, String sourceIp, long now) {
+        long blockedUntil = Math.max(accounts.blockedUntil(key(email), now),
+                sourceIp != null ? sourceIps.blockedUntil(sourceIp, now) : 0L);
+        if (blockedUntil > now) {
+            if (throttledCounter != null) {
+                throttledCounter.increment();
+            }
+            long retryAfterSeconds = Math.max(1, (blockedUntil - now + 999) / 1000);
+            throw new LoginThrottledException("Too many failed login attempts", retryAfterSeconds);
+        }
+    }
+
+    /**
+     * Records a failed attempt and returns {@code true} if it locked the account.
+     */
+    public boolean recordFailure(String email, String sourceIp) {
+        return recordFailure(email, sourceIp, System.currentTimeMillis());
+    }
+
+    boolean recordFailure(String email, String sourceIp, long now) {
+        Window.Outcome ipOutcome = sourceIp != null
+                ? sourceIps.recordFailure(sourceIp, now, windowMillis, lockoutMillis)
+                : null;
+        if (ipOutcome != null && ipOutcome.locked()) {
+            logger.warn("Throttling logins from {} after {} failures", sourceIp, maxFailuresPerIp);
+        }
+        String key = key(email);
+        Window.Outcome outcome = accounts.recordFailure(key, now, windowMillis, lockoutMillis);
+        if (outcome == null) {
+            return false;
+        }
+        markPending(new LoginAttemptState(key, outcome.failures(),
+                outcome.lockedUntil() > now ? Instant.ofEpochMilli(outcome.lockedUntil()) : null));
+        if (outcome.locked()) {
+            logger.warn("Locked account {} after {} failed logins", key, maxFailures);
+            if (lockoutCounter != null) {
+                lockoutCounter.increment();
+            }
+        }
+        return outcome.locked();
+    }
+
+    /**
+     * Clears the account's failures after a successful login.
+     */
+    public void recordSuccess(String email) {
+        String key = key(email);
+        if (accounts.reset(key)) {
+            markPending(LoginAttemptState.reset(key));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${security.login-attempts.flush-interval:PT30S}")
+    @PreDestroy
+    public void flush() {
+        flushScheduled.set(false);
+        if (pending.isEmpty()) {
+            return;
+        }
+        List<LoginAttemptState> batch = new ArrayList<>(pending.size());
+        for (String email : pending.keySet()) {
+            LoginAttemptState state = pending.remove(email);
+            if (state != null) {
+                batch.add(state);
+            }
+        }
+        try {
+            loginAttemptRepository.updateBatch(batch);
+            logger.debug("Flushed failed-login state of {} accounts", batch.size());
+        } catch (RuntimeException e) {
+            // Newer state recorded meanwhile wins over the batch being retried
+            for (LoginAttemptState state : batch) {
+                pending.putIfAbsent(state.email(), state);
+            }
+            logger.warn("Failed to flush failed-login state of {} accounts, will retry", batch.size(), e);
+        }
+    }
+
+    private void markPending(LoginAttemptState state) {
+        pending.put(state.email(), state);
+        if (pending.size() >= flushThreshold && flushScheduled.compareAndSet(false, true)) {
+            taskScheduler.schedule(this::flush, Instant.now());
+        }
+    }
+
+    private static String key(String email) {
+        // Matched exactly, like the credentials lookup itself
+        return email.trim();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("auth.login-attempts.tracked", accounts, StripedWindows::size)
+                .tag("key", "account")
+                .register(registry);
+        Gauge.builder("auth.login-attempts.tracked", sourceIps, StripedWindows::size)
+                .tag("key", "ip")
+                .register(registry);
+        Gauge.builder("auth.login-attempts.pending", pending, ConcurrentHashMap::size)
+                .register(registry);
+        lockoutCounter = Counter.builder("auth.login-attempts.lockouts")
+                .register(registry);
+        throttledCounter = Counter.builder("auth.login-attempts.throttled")
+                .register(registry);
+    }
+
+    /**
+     * Failure windows keyed by account or IP, split over lock stripes. Each stripe
+     * is an access-ordered map that evicts its least recently used window when full.
+     */
+    private static final class StripedWindows {
+
+        private final ReentrantLock[] locks = new ReentrantLock[STRIPES];
+        private final List<Map<String, Window>> maps = new ArrayList<>(STRIPES);
+        private final int threshold;
+
+        StripedWindows(int threshold, int maxPerStripe) {
+            this.threshold = threshold;
+            for (int i = 0; i < STRIPES; i++) {
+                locks[i] = new ReentrantLock();
+                maps.add(new LinkedHashMap<>(16, 0.75f, true) {
+                    @Override
+                    protected boolean removeEldestEntry(Map.Entry<String, Window> eldest) {
+                        return size() > maxPerStripe;
+                    }
+                });
+            }
+        }
+
+        long blockedUntil(String key, long now) {
+            int stripe = stripe(key);
+            locks[stripe].lock();
+            try {
+                Window window = maps.get(stripe).get(key);
+                return window != null && window.lockedUntil > now ? window.lockedUntil : 0L;
+            } finally {
+                locks[stripe].unlock();
+            }
+        }
+
+        /**
+         * Returns the window's state after the failure, or {@code null} if the key
+         * was already blocked and the attempt should not count.
+         */
+        Window.Outcome recordFailure(String key, long now, long windowMillis, long lockoutMillis) {
+            int stripe = stripe(key);
+            locks[stripe].lock();
+            try {
+                Window window = maps.get(stripe).computeIfAbsent(key, k -> new Window(threshold));
+                return window.recordFailure(now, windowMillis, lockoutMillis);
+            } finally {
+                locks[stripe].unlock();
+            }
+        }
+
+        boolean reset(String key) {
+            int stripe = stripe(key);
+            locks[stripe].lock();
+            try {
+                return maps.get(stripe).remove(key) != null;
+            } finally {
+                locks[stripe].unlock();
+            }
+        }
+
+        int size() {
+            int size = 0;
+            for (int i = 0; i < STRIPES; i++) {
+                locks[i].lock();
+                try {
+                    size += maps.get(i).size();
+                } finally {
+                    locks[i].unlock();
+                }
+            }
+            return size;
+        }
+
+        private static int stripe(String key) {
+            int h = key.hashCode();
+            return (h ^ (h >>> 16)) & (STRIPES - 1);
+        }
+    }
+
+    /**
+     * Timestamps of the last {@code threshold} failures in a ring; the window is
+     * exceeded when the oldest of them is still inside it.
+     */
+    private static final class Window {
+
+        private final long[] failures;
+        private int next;
+        private int count;
+        private long lockedUntil;
+
+        Window(int threshold) {
+            this.failures = new long[threshold];
+        }
+
+        Outcome recordFailure(long now, long windowMillis, long lockoutMillis) {
+            if (lockedUntil > now) {
+                return null;
+            }
+            failures[next] = now;
+            next = (next + 1) % failures.length;
+            count = Math.min(count + 1, failures.length);
+            int recent = 0;
+            for (int i = 0; i < count; i++) {
+                if (failures[i] > now - windowMillis) {
+                    recent++;
+                }
+            }
+            boolean locked = recent == failures.length;
+            if (locked) {
+                lockedUntil = now + lockoutMillis;
+                count = 0;
+                next = 0;
+            }
+            return new Outcome(recent, lockedUntil, locked);
+        }
+
+        record Outcome(int failures, long lockedUntil, boolean locked) {
+        }
+    }
+}
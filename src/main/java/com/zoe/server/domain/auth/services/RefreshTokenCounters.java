@@ -0,0 +1,85 @@
+package com.zoe.server.domain.auth.services;
+
+import com.zoe.server.domain.auth.dtos.TokenStatsDto;
+import com.zoe.server.domain.auth.repositories.RefreshTokenStore;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Refresh-token counts kept in memory so that reading them never touches the
+ * database.
+ * <p>
+ * {@link RefreshTokenService} adjusts the counters as it creates and revokes
+ * tokens, and reconciles them after each purge. Tokens that simply reach their
+ * expiry, writes that are rolled back and changes made by other nodes are not
+ * seen, so the counters are also periodically replaced with the result of one
+ * aggregate query over the store.
+ */
+@Component
+public class RefreshTokenCounters implements MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(RefreshTokenCounters.class);
+
+    private final RefreshTokenStore refreshTokenStore;
+    private final AtomicLong active = new AtomicLong();
+    private final AtomicLong expired = new AtomicLong();
+    private final AtomicLong revoked = new AtomicLong();
+    private volatile Instant reconciledAt = Instant.EPOCH;
+
+    public RefreshTokenCounters(RefreshTokenStore refreshTokenStore) {
+        this.refreshTokenStore = refreshTokenStore;
+    }
+
+    @PostConstruct
+    @Scheduled(fixedDelayString = "${refresh-token.stats.reconcile-interval:PT5M}",
+            initialDelayString = "${refresh-token.stats.reconcile-interval:PT5M}")
+    public void reconcile() {
+        Instant now = Instant.now();
+        TokenStatsDto counts = refreshTokenStore.countTokens(now);
+        active.set(counts.getActiveTokens());
+        expired.set(counts.getExpiredTokens());
+        revoked.set(counts.getRevokedTokens());
+        reconciledAt = now;
+        logger.debug("Reconciled refresh token counters: {} active, {} expired, {} revoked",
+                counts.getActiveTokens(), counts.getExpiredTokens(), counts.getRevokedTokens());
+    }
+
+    public void created() {
+        active.incrementAndGet();
+    }
+
+    public void revoked(int count) {
+        if (count <= 0) {
+            return;
+        }
+        active.updateAndGet(value -> Math.max(0, value - count));
+        revoked.addAndGet(count);
+    }
+
+    public TokenStatsDto snapshot() {
+        long activeTokens = active.get();
+        long expiredTokens = expired.get();
+        long revokedTokens = revoked.get();
+        return new TokenStatsDto(activeTokens + expiredTokens + revokedTokens, activeTokens, expiredTokens, revokedTokens);
+    }
+
+    public Instant reconciledAt() {
+        return reconciledAt;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("auth.refresh-tokens", active, AtomicLong::get).tag("state", "active").register(registry);
+        Gauge.builder("auth.refresh-tokens", expired, AtomicLong::get).tag("state", "expired").register(registry);
+        Gauge.builder("auth.refresh-tokens", revoked, AtomicLong::get).tag("state", "revoked").register(registry);
+    }
+}
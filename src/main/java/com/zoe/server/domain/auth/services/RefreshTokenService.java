@@ -1,9 +1,18 @@
 package com.zoe.server.domain.auth.services;
 
+import com.zoe.server.domain.auth.dtos.TokenStatsDto;
+import com.zoe.server.domain.auth.events.SecurityEvent;
+import com.zoe.server.domain.auth.events.SecurityEventPublisher;
+import com.zoe.server.domain.auth.events.SecurityEventType;
+import com.zoe.server.domain.auth.exceptions.InvalidRefreshTokenException;
+import com.zoe.server.domain.auth.exceptions.InvalidRefreshTokenException.Reason;
 import com.zoe.server.domain.auth.models.RefreshToken;
-import com.zoe.server.domain.auth.repositories.RefreshTokenRepository;
+import com.zoe.server.domain.auth.models.RefreshTokenWithAccount;
+import com.zoe.server.domain.auth.models.RotatedRefreshToken;
+import com.zoe.server.domain.auth.repositories.RefreshTokenStore;
 import com.zoe.server.domain.user.enums.UserRole;
-import lombok.Getter;
+import com.zoe.server.domain.user.models.UserAuthView;
+import com.zoe.server.domain.user.repositories.UserRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -19,8 +28,12 @@ public class RefreshTokenService {
 
     private static final Logger logger = LoggerFactory.getLogger(RefreshTokenService.class);
 
-    private final RefreshTokenRepository refreshTokenRepository;
+    private final RefreshTokenStore refreshTokenStore;
     private final TokenSecurityService tokenSecurityService;
+    private final RefreshTokenCounters refreshTokenCounters;
+    private final RefreshTokenUsageTracker refreshTokenUsageTracker;
+    private final SecurityEventPublisher securityEventPublisher;
+    private final UserRepository userRepository;
 
     @Value("${jwt.refresh-token-expiration:604800000}") // 7 days in milliseconds
     private long refreshTokenExpiration;
@@ -28,94 +41,196 @@ public class RefreshTokenService {
     @Value("${jwt.max-tokens-per-user:5}") // Maximum tokens per user
     private int maxTokensPerUser;
 
-    public RefreshTokenService(RefreshTokenRepository refreshTokenRepository,
-                               TokenSecurityService tokenSecurityService) {
-        this.refreshTokenRepository = refreshTokenRepository;
+    public RefreshTokenService(RefreshTokenStore refreshTokenStore,
+                               TokenSecurityService tokenSecurityService,
+                               RefreshTokenCounters refreshTokenCounters,
+                               RefreshTokenUsageTracker refreshTokenUsageTracker,
+                               SecurityEventPublisher securityEventPublisher,
+                               UserRepository userRepository) {
+        this.refreshTokenStore = refreshTokenStore;
         this.tokenSecurityService = tokenSecurityService;
+        this.refreshTokenCounters = refreshTokenCounters;
+        this.refreshTokenUsageTracker = refreshTokenUsageTracker;
+        this.securityEventPublisher = securityEventPublisher;
+        this.userRepository = userRepository;
     }
 
 
     @Transactional
-    public String createRefreshToken(Long userId, UserRole userRole) {
+    public String createRefreshToken(Long userId, UserRole userRole, String email, int credentialVersion) {
 
         limitActiveTokensPerUser(userId, userRole);
 
         String secureToken = tokenSecurityService.generateSecureToken();
         String familyId = tokenSecurityService.generateFamilyId();
-        String tokenHash = tokenSecurityService.hashToken(secureToken);
+        refreshTokenStore.save(newRefreshToken(secureToken, userId, userRole, email, credentialVersion, familyId));
+        refreshTokenCounters.created();
 
-        Instant expiresAt = Instant.now().plusMillis(refreshTokenExpiration);
+        logger.debug("Created refresh token for user {} ({}), family: {}", userId, userRole, familyId);
+        return secureToken;
+    }
 
+    private RefreshToken newRefreshToken(String secureToken, Long userId, UserRole userRole,
+                                         String email, Integer credentialVersion, String familyId) {
         RefreshToken refreshToken = new RefreshToken();
         refreshToken.setUserId(userId);
         refreshToken.setUserRole(userRole);
-        refreshToken.setTokenHash(tokenHash);
+        refreshToken.setEmail(email);
+        refreshToken.setCredentialVersion(credentialVersion);
+        refreshToken.setSelector(tokenSecurityService.selectorOf(secureToken));
+        refreshToken.setVerifierHash(tokenSecurityService.hashVerifier(secureToken));
         refreshToken.setFamilyId(familyId);
-        refreshToken.setExpiresAt(expiresAt);
-        refreshTokenRepository.save(refreshToken);
-
-        logger.info("Created refresh token for user {} ({}), family: {}", userId, userRole, familyId);
-        return secureToken;
+        refreshToken.setExpiresAt(Instant.now().plusMillis(refreshTokenExpiration));
+        return refreshToken;
     }
 
-    @Transactional
+    @Transactional(noRollbackFor = InvalidRefreshTokenException.class)
     public Long validateRefreshToken(String token) {
+        RefreshToken refreshToken = findRefreshToken(token);
+        ensureValid(refreshToken);
+        refreshTokenUsageTracker.record(refreshToken);
+
+        logger.debug("Validated refresh token for user {}, use count: {}",
+                refreshToken.getUserId(), refreshToken.getUseCount());
+
+        return refreshToken.getUserId();
+    }
+
+    private RefreshToken findRefreshToken(String token) {
         if (tokenSecurityService.isValidToken(token)) {
-            throw new IllegalArgumentException("Invalid refresh token format");
+            throw new InvalidRefreshTokenException(Reason.MALFORMED, "Invalid refresh token format");
         }
 
-        String tokenHash = tokenSecurityService.hashToken(token);
-        Optional<RefreshToken> tokenOpt = refreshTokenRepository.findByTokenHash(tokenHash);
+        return lookup(token)
+                .orElseThrow(() -> new InvalidRefreshTokenException(Reason.NOT_FOUND, "Refresh token not found"));
+    }
 
-        if (tokenOpt.isEmpty()) {
-            throw new IllegalArgumentException("Refresh token not found");
+    private Optional<RefreshToken> lookup(String token) {
+        String selector = tokenSecurityService.selectorOf(token);
+        if (selector == null) {
+            return refreshTokenStore.findByTokenHash(tokenSecurityService.hashToken(token));
         }
+        return refreshTokenStore.findBySelector(selector)
+                .filter(refreshToken -> tokenSecurityService.verifierMatches(token, refreshToken.getVerifierHash()));
+    }
 
-        RefreshToken refreshToken = tokenOpt.get();
+    /**
+     * Like {@link #findRefreshToken}, but also reads the user's current credentials,
+     * in the same query for selector tokens.
+     */
+    private RefreshTokenWithAccount findRefreshTokenWithAccount(String token) {
+        if (tokenSecurityService.isValidToken(token)) {
+            throw new InvalidRefreshTokenException(Reason.MALFORMED, "Invalid refresh token format");
+        }
+        String selector = tokenSecurityService.selectorOf(token);
+        Optional<RefreshTokenWithAccount> found = selector == null
+                ? refreshTokenStore.findByTokenHash(tokenSecurityService.hashToken(token))
+                        .map(legacy -> new RefreshTokenWithAccount(legacy, userRepository.findAuthViewById(legacy.getUserId()).orElse(null)))
+                : refreshTokenStore.findBySelectorWithAccount(selector, userRepository::findAuthViewById)
+                        .filter(withAccount -> tokenSecurityService.verifierMatches(token, withAccount.token().getVerifierHash()));
+        return found.orElseThrow(() -> new InvalidRefreshTokenException(Reason.NOT_FOUND, "Refresh token not found"));
+    }
 
+    private void ensureValid(RefreshToken refreshToken) {
         if (!refreshToken.isValid()) {
             if (refreshToken.isExpired()) {
-                refreshTokenRepository.delete(refreshToken);
-                throw new IllegalArgumentException("Refresh token has expired");
-            } else if (refreshToken.isRevoked()) {
-                throw new IllegalArgumentException("Refresh token has been revoked: " + refreshToken.getRevokedReason());
+                refreshTokenStore.delete(refreshToken);
+                throw new InvalidRefreshTokenException(Reason.EXPIRED, "Refresh token has expired");
             } else if (refreshToken.isCompromised()) {
-                throw new IllegalArgumentException("Refresh token has been compromised");
+                throw new InvalidRefreshTokenException(Reason.COMPROMISED, "Refresh token has been compromised");
+            } else if (refreshToken.isRevoked()) {
+                throw new InvalidRefreshTokenException(Reason.REVOKED, "Refresh token has been revoked: " + refreshToken.getRevokedReason());
             }
         }
+    }
 
-        refreshTokenRepository.save(refreshToken);
+    /**
+     * Replaces a refresh token with a new one in the same family. The old token is
+     * claimed with a conditional update, so presenting a token that was already
+     * rotated, either earlier or by a concurrent request, is treated as reuse of a
+     * stolen token and compromises the whole family. The account's current
+     * credentials are checked first: a locked account keeps its token for after
+     * the lock, while a deactivated account or changed credentials end the family.
+     */
+    @Transactional(noRollbackFor = InvalidRefreshTokenException.class)
+    public RotatedRefreshToken rotateRefreshToken(String oldToken) {
+
+        RefreshTokenWithAccount found = findRefreshTokenWithAccount(oldToken);
+        RefreshToken current = found.token();
+        // Replays of an already rotated token count too, so the tracker can flag them
+        refreshTokenUsageTracker.record(current);
+        if (isRotated(current)) {
+            throw compromiseFamily(current);
+        }
+        ensureValid(current);
+        Instant now = Instant.now();
+        UserAuthView account = ensureAccountUsable(current, found.account(), now);
 
-        logger.debug("Validated refresh token for user {}, use count: {}",
-                refreshToken.getUserId(), refreshToken.getUseCount());
+        String newToken = tokenSecurityService.generateSecureToken();
+        RefreshToken replacement = newRefreshToken(newToken, current.getUserId(), current.getUserRole(),
+                account.email(), account.credentialVersion(), current.getFamilyId());
 
-        return refreshToken.getUserId();
+        if (refreshTokenStore.rotate(current.getId(), current.getExpiresAt(), replacement, now).isEmpty()) {
+            if (!current.getExpiresAt().isAfter(now)) {
+                throw new InvalidRefreshTokenException(Reason.EXPIRED, "Refresh token has expired");
+            }
+            throw compromiseFamily(current);
+        }
+        refreshTokenCounters.revoked(1);
+        refreshTokenCounters.created();
+
+        securityEventPublisher.publish(SecurityEvent.of(SecurityEventType.REFRESH_TOKEN_ROTATED,
+                current.getUserId(), current.getEmail(), "family " + current.getFamilyId()));
+        logger.debug("Rotated refresh token for user {}, family: {}", current.getUserId(), current.getFamilyId());
+        return new RotatedRefreshToken(newToken, current.getUserId(), current.getUserRole(),
+                account.email(), account.credentialVersion());
     }
 
-    @Transactional
-    public String rotateRefreshToken(String oldToken, UserRole userRole) {
-
-        Long userId = validateRefreshToken(oldToken);
+    private UserAuthView ensureAccountUsable(RefreshToken refreshToken, UserAuthView account, Instant now) {
+        if (account == null || !account.active()) {
+            endFamily(refreshToken, now, "Account deactivated");
+            throw new InvalidRefreshTokenException(Reason.DISABLED, "Account is no longer active");
+        }
+        Integer issuedVersion = refreshToken.getCredentialVersion();
+        if (issuedVersion != null && issuedVersion != account.credentialVersion()) {
+            endFamily(refreshToken, now, "Credentials changed");
+            throw new InvalidRefreshTokenException(Reason.REVOKED, "Credentials changed since the token was issued");
+        }
+        if (account.isLockedAt(now)) {
+            throw new InvalidRefreshTokenException(Reason.LOCKED, "Account is locked");
+        }
+        return account;
+    }
 
-        String oldTokenHash = tokenSecurityService.hashToken(oldToken);
-        Optional<RefreshToken> oldTokenOpt = refreshTokenRepository.findByTokenHash(oldTokenHash);
+    private void endFamily(RefreshToken refreshToken, Instant now, String reason) {
+        int revoked = refreshToken.getFamilyId() == null
+                ? refreshTokenStore.revokeUser(refreshToken.getUserId(), refreshToken.getUserRole(), now, reason)
+                : refreshTokenStore.revokeFamily(refreshToken.getFamilyId(), now, reason);
+        refreshTokenCounters.revoked(revoked);
+        securityEventPublisher.publish(SecurityEvent.of(SecurityEventType.REFRESH_TOKEN_REVOKED,
+                refreshToken.getUserId(), refreshToken.getEmail(), reason));
+        logger.debug("Revoked refresh token family {} of user {}: {}",
+                refreshToken.getFamilyId(), refreshToken.getUserId(), reason);
+    }
 
-        if (oldTokenOpt.isPresent()) {
-            RefreshToken oldRefreshToken = oldTokenOpt.get();
-            oldRefreshToken.revoke("Token rotated");
-            refreshTokenRepository.save(oldRefreshToken);
+    private boolean isRotated(RefreshToken refreshToken) {
+        return refreshToken.isRevoked()
+                && !refreshToken.isCompromised()
+                && RefreshToken.ROTATED_REASON.equals(refreshToken.getRevokedReason());
+    }
 
-            refreshTokenRepository.revokeAllTokensInFamily(
-                    oldRefreshToken.getFamilyId(),
-                    Instant.now(),
-                    "Family revoked due to rotation"
-            );
+    private InvalidRefreshTokenException compromiseFamily(RefreshToken reused) {
+        securityEventPublisher.publish(SecurityEvent.of(SecurityEventType.REFRESH_TOKEN_REUSE_DETECTED,
+                reused.getUserId(), reused.getEmail(), "family " + reused.getFamilyId()));
+        if (reused.getFamilyId() == null) {
+            refreshTokenCounters.revoked(refreshTokenStore.revokeUser(
+                    reused.getUserId(), reused.getUserRole(), Instant.now(), "Refresh token reuse detected"));
+            return new InvalidRefreshTokenException(Reason.COMPROMISED, "Refresh token has already been used");
         }
-
-        String newToken = createRefreshToken(userId, userRole);
-
-        logger.info("Rotated refresh token for user {}, old family revoked", userId);
-        return newToken;
+        refreshTokenCounters.revoked(refreshTokenStore.markFamilyAsCompromised(reused.getFamilyId(), Instant.now()));
+        logger.warn("Refresh token reuse detected, marked family {} as compromised for user {}",
+                reused.getFamilyId(), reused.getUserId());
+        return new InvalidRefreshTokenException(Reason.COMPROMISED, "Refresh token has already been used");
     }
 
     @Transactional
@@ -124,31 +239,33 @@ public class RefreshTokenService {
             return;
         }
 
-        String tokenHash = tokenSecurityService.hashToken(token);
-        Optional<RefreshToken> tokenOpt = refreshTokenRepository.findByTokenHash(tokenHash);
+        Optional<RefreshToken> tokenOpt = lookup(token);
 
         if (tokenOpt.isPresent()) {
             RefreshToken refreshToken = tokenOpt.get();
+            boolean wasValid = refreshToken.isValid();
             refreshToken.revoke(reason);
-            refreshTokenRepository.save(refreshToken);
+            refreshTokenStore.save(refreshToken);
+            if (wasValid) {
+                refreshTokenCounters.revoked(1);
+            }
 
-            logger.info("Revoked refresh token for user {}, reason: {}",
+            securityEventPublisher.publish(SecurityEvent.of(SecurityEventType.REFRESH_TOKEN_REVOKED,
+                    refreshToken.getUserId(), refreshToken.getEmail(), reason));
+            logger.debug("Revoked refresh token for user {}, reason: {}",
                     refreshToken.getUserId(), reason);
         }
     }
 
     @Transactional
     public void revokeAllUserTokens(Long userId, UserRole userRole, String reason) {
-        var userTokens = refreshTokenRepository.findByUserIdAndUserRole(userId, userRole);
-
-        for (RefreshToken token : userTokens) {
-            token.revoke(reason);
-        }
+        int revoked = refreshTokenStore.revokeUser(userId, userRole, Instant.now(), reason);
+        refreshTokenCounters.revoked(revoked);
 
-        refreshTokenRepository.saveAll(userTokens);
-
-        logger.info("Revoked all {} tokens for user {} ({}), reason: {}",
-                userTokens.size(), userId, userRole, reason);
+        securityEventPublisher.publish(SecurityEvent.of(SecurityEventType.REFRESH_TOKENS_REVOKED_FOR_USER,
+                userId, null, revoked + " tokens: " + reason));
+        logger.debug("Revoked all {} tokens for user {} ({}), reason: {}",
+                revoked, userId, userRole, reason);
     }
 
     @Transactional
@@ -157,14 +274,15 @@ public class RefreshTokenService {
             return;
         }
 
-        String tokenHash = tokenSecurityService.hashToken(token);
-        Optional<RefreshToken> tokenOpt = refreshTokenRepository.findByTokenHash(tokenHash);
+        Optional<RefreshToken> tokenOpt = lookup(token);
 
         if (tokenOpt.isPresent()) {
             RefreshToken refreshToken = tokenOpt.get();
             String familyId = refreshToken.getFamilyId();
 
-            refreshTokenRepository.markFamilyAsCompromised(familyId, Instant.now());
+            refreshTokenCounters.revoked(refreshTokenStore.markFamilyAsCompromised(familyId, Instant.now()));
+            securityEventPublisher.publish(SecurityEvent.of(SecurityEventType.TOKEN_FAMILY_COMPROMISED,
+                    refreshToken.getUserId(), refreshToken.getEmail(), "family " + familyId));
 
             logger.warn("Marked token family {} as compromised for user {}",
                     familyId, refreshToken.getUserId());
@@ -172,30 +290,22 @@ public class RefreshTokenService {
     }
 
     private void limitActiveTokensPerUser(Long userId, UserRole userRole) {
-        var activeTokens = refreshTokenRepository.findValidTokensByUser(userId, userRole);
-
-        if (activeTokens.size() >= maxTokensPerUser) {
-            var oldestToken = activeTokens.stream()
-                    .min((t1, t2) ->
-                            t1.getCreatedAt().atZone(java.time.ZoneId.systemDefault()).toInstant()
-                                    .compareTo(t2.getCreatedAt().atZone(java.time.ZoneId.systemDefault()).toInstant())
-                    )
-                    .orElse(null);
-
-            if (oldestToken != null) {
-                oldestToken.revoke("Maximum tokens per user limit reached");
-                refreshTokenRepository.save(oldestToken);
-
-                logger.info("Revoked oldest token for user {} due to limit", userId);
-            }
+        int revoked = refreshTokenStore.revokeExcessTokens(userId, userRole, maxTokensPerUser - 1,
+                Instant.now(), "Maximum tokens per user limit reached");
+
+        if (revoked > 0) {
+            refreshTokenCounters.revoked(revoked);
+            securityEventPublisher.publish(SecurityEvent.of(SecurityEventType.REFRESH_TOKEN_REVOKED,
+                    userId, null, revoked + " tokens: maximum tokens per user limit reached"));
+            logger.debug("Revoked {} oldest tokens for user {} due to limit", revoked, userId);
         }
     }
 
     @Scheduled(cron = "0 0 2 * * ?") // 2 AM daily
-    @Transactional
     public void cleanupExpiredTokens() {
         Instant cutoff = Instant.now().minusSeconds(86400); // 24 hours ago
-        int deletedCount = refreshTokenRepository.deleteExpiredTokens(cutoff);
+        int deletedCount = refreshTokenStore.purgeExpired(cutoff);
+        refreshTokenCounters.reconcile();
 
         if (deletedCount > 0) {
             logger.info("Cleaned up {} expired refresh tokens", deletedCount);
@@ -203,41 +313,7 @@ public class RefreshTokenService {
     }
 
 
-    public TokenStats getTokenStats() {
-        long totalTokens = refreshTokenRepository.count();
-        long expiredTokens = refreshTokenRepository.findExpiredTokens(Instant.now()).size();
-        long revokedTokens = refreshTokenRepository.findRevokedOrCompromisedTokens().size();
-        long activeTokens = totalTokens - expiredTokens - revokedTokens;
-
-        return new TokenStats(totalTokens, activeTokens, expiredTokens, revokedTokens);
-    }
-
-    @Getter
-    public static class TokenStats {
-        // Getters
-        private final long totalTokens;
-        private final long activeTokens;
-        private final long expiredTokens;
-        private final long revokedTokens;
-
-        public TokenStats(long totalTokens, long activeTokens, long expiredTokens, long revokedTokens) {
-            this.totalTokens = totalTokens;
-            this.activeTokens = activeTokens;
-            this.expiredTokens = expiredTokens;
-            this.revokedTokens = revokedTokens;
-        }
-
-    }
-
-    // Stub: Extract userId from refresh token (implement JWT claim extraction here)
-    public Long extractUserIdFromRefreshToken(String refreshToken) {
-        // TODO: Implement JWT parsing and claim extraction
-        return 1L;
-    }
-
-    // Stub: Extract userRole from refresh token (implement JWT claim extraction here)
-    public UserRole extractUserRoleFromRefreshToken(String refreshToken) {
-        // TODO: Implement JWT parsing and claim extraction
-        return UserRole.PSYCHOLOGIST;
+    public TokenStatsDto getTokenStats() {
+        return refreshTokenCounters.snapshot();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,116 @@
+package com.zoe.server.domain.auth.services;
+
+import com.zoe.server.domain.auth.models.RefreshToken;
+import com.zoe.server.domain.auth.models.RefreshTokenUsage;
+import com.zoe.server.domain.auth.repositories.RefreshTokenStore;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Records refresh-token uses ({@code use_count}, {@code last_used_at}) without a
+ * write on the request path.
+ * <p>
+ * Uses are merged per token in memory and written as one batched update, either on
+ * a schedule or, once enough tokens are pending, on the task scheduler. A token
+ * used more than {@code refresh-token.usage.suspicious-uses} times between two
+ * flushes is logged and counted, as that usually means it is being replayed.
+ * Uses still pending when the node stops abruptly are lost; they are telemetry,
+ * not part of token validity.
+ */
+@Component
+public class RefreshTokenUsageTracker implements MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(RefreshTokenUsageTracker.class);
+
+    private final RefreshTokenStore refreshTokenStore;
+    private final TaskScheduler taskScheduler;
+    private final int flushThreshold;
+    private final int suspiciousUses;
+    private final ConcurrentHashMap<Long, RefreshTokenUsage> pending = new ConcurrentHashMap<>();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    private Counter suspiciousCounter;
+    private Timer flushTimer;
+
+    public RefreshTokenUsageTracker(RefreshTokenStore refreshTokenStore,
+                                    TaskScheduler taskScheduler,
+                                    @Value("${refresh-token.usage.flush-threshold:1000}") int flushThreshold,
+                                    @Value("${refresh-token.usage.suspicious-uses:20}") int suspiciousUses) {
+        this.refreshTokenStore = refreshTokenStore;
+        this.taskScheduler = taskScheduler;
+        this.flushThreshold = flushThreshold;
+        this.suspiciousUses = suspiciousUses;
+    }
+
+    public void record(RefreshToken token) {
+        RefreshTokenUsage usage = pending.merge(token.getId(),
+                new RefreshTokenUsage(token.getId(), token.getExpiresAt(), 1, Instant.now()),
+                RefreshTokenUsage::merge);
+        if (usage.uses() == suspiciousUses) {
+            logger.warn("Refresh token {} of user {} used {} times since the last flush",
+                    token.getId(), token.getUserId(), usage.uses());
+            if (suspiciousCounter != null) {
+                suspiciousCounter.increment();
+            }
+        }
+        if (pending.size() >= flushThreshold && flushScheduled.compareAndSet(false, true)) {
+            taskScheduler.schedule(this::flush, Instant.now());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${refresh-token.usage.flush-interval:PT10S}")
+    @PreDestroy
+    public void flush() {
+        flushScheduled.set(false);
+        if (pending.isEmpty()) {
+            return;
+        }
+        List<RefreshTokenUsage> batch = new ArrayList<>(pending.size());
+        for (Long tokenId : pending.keySet()) {
+            RefreshTokenUsage usage = pending.remove(tokenId);
+            if (usage != null) {
+                batch.add(usage);
+            }
+        }
+        long start = System.nanoTime();
+        try {
+            refreshTokenStore.recordUsage(batch);
+            logger.debug("Flushed usage of {} refresh tokens", batch.size());
+        } catch (RuntimeException e) {
+            for (RefreshTokenUsage usage : batch) {
+                pending.merge(usage.tokenId(), usage, RefreshTokenUsage::merge);
+            }
+            logger.warn("Failed to flush usage of {} refresh tokens, will retry", batch.size(), e);
+        } finally {
+            if (flushTimer != null) {
+                flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("auth.refresh-token.usage.pending", pending, ConcurrentHashMap::size)
+                .register(registry);
+        suspiciousCounter = Counter.builder("auth.refresh-token.usage.suspicious")
+                .register(registry);
+        flushTimer = Timer.builder("auth.refresh-token.usage.flush")
+                .register(registry);
+    }
+}
@@ -2,38 +2,78 @@ package com.zoe.server.domain.auth.services;
 
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.security.SecureRandom;
 import java.util.Base64;
 
+/**
+ * Generates and checks refresh tokens.
+ * <p>
+ * Tokens have the form {@code selector.verifier}. The selector is a short random
+ * value stored in clear and used to find the row; only the SHA-256 digest of the
+ * verifier is stored, and it is compared in constant time. Tokens issued before
+ * this format are a single random string looked up by the Base64 SHA-256 of the
+ * whole token; they are still accepted until they expire.
+ */
 @Service
 public class TokenSecurityService {
 
     private static final SecureRandom SECURE_RANDOM = new SecureRandom();
-    private static final int TOKEN_LENGTH = 64;
+    private static final Base64.Encoder URL_ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final int SELECTOR_LENGTH = 12;
+    private static final int VERIFIER_LENGTH = 32;
+    private static final char SEPARATOR = '.';
 
     public String generateSecureToken() {
-        byte[] randomBytes = new byte[TOKEN_LENGTH];
-        SECURE_RANDOM.nextBytes(randomBytes);
-        return Base64.getUrlEncoder().withoutPadding().encodeToString(randomBytes);
+        return randomString(SELECTOR_LENGTH) + SEPARATOR + randomString(VERIFIER_LENGTH);
     }
 
     public String generateFamilyId() {
-        byte[] randomBytes = new byte[32];
-        SECURE_RANDOM.nextBytes(randomBytes);
-        return Base64.getUrlEncoder().withoutPadding().encodeToString(randomBytes);
+        return randomString(32);
+    }
+
+    /**
+     * Returns the selector of a {@code selector.verifier} token, or {@code null} for
+     * a token in the legacy format.
+     */
+    public String selectorOf(String token) {
+        int separator = token.indexOf(SEPARATOR);
+        return separator > 0 ? token.substring(0, separator) : null;
+    }
+
+    public byte[] hashVerifier(String token) {
+        String verifier = token.substring(token.indexOf(SEPARATOR) + 1);
+        return sha256(verifier);
+    }
+
+    public boolean verifierMatches(String token, byte[] verifierHash) {
+        return verifierHash != null && MessageDigest.isEqual(hashVerifier(token), verifierHash);
     }
 
+    /**
+     * Hash of a legacy-format token, as stored in {@code token_hash}.
+     */
     public String hashToken(String token) {
-        try {
-            java.security.MessageDigest digest = java.security.MessageDigest.getInstance("SHA-256");
-            byte[] hash = digest.digest(token.getBytes(java.nio.charset.StandardCharsets.UTF_8));
-            return Base64.getEncoder().encodeToString(hash);
-        } catch (java.security.NoSuchAlgorithmException e) {
-            throw new RuntimeException("SHA-256 algorithm not available", e);
-        }
+        return Base64.getEncoder().encodeToString(sha256(token));
     }
 
     public boolean isValidToken(String token) {
         return token == null || token.length() < 32;
     }
-}
\ No newline at end of file
+
+    private static String randomString(int bytes) {
+        byte[] randomBytes = new byte[bytes];
+        SECURE_RANDOM.nextBytes(randomBytes);
+        return URL_ENCODER.encodeToString(randomBytes);
+    }
+
+    private static byte[] sha256(String value) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException("SHA-256 algorithm not available", e);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.zoe.server.domain.patient.dtos;
+
+import com.zoe.server.domain.patient.enums.PatientImportStatus;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class PatientImportResultDto {
+    private int row;
+    private String email;
+    private PatientImportStatus status;
+    private String message;
+}
@@ -0,0 +1,28 @@
+package com.zoe.server.domain.patient.enums;
+
+import org.springframework.http.MediaType;
+
+public enum PatientImportFormat {
+    CSV("text/csv"),
+    NDJSON("application/x-ndjson");
+
+    private final String mediaType;
+
+    PatientImportFormat(String mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    public String mediaType() {
+        return mediaType;
+    }
+
+    public static PatientImportFormat fromContentType(String contentType) {
+        MediaType type = MediaType.parseMediaType(contentType);
+        for (PatientImportFormat format : values()) {
+            if (MediaType.parseMediaType(format.mediaType).isCompatibleWith(type)) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported import content type: " + contentType);
+    }
+}
@@ -0,0 +1,8 @@
+package com.zoe.server.domain.patient.enums;
+
+public enum PatientImportStatus {
+    CREATED,
+    INVALID,
+    DUPLICATE,
+    FAILED
+}
@@ -0,0 +1,212 @@
+package com.zoe.server.domain.patient.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zoe.server.domain.auth.dtos.RegisterPatientRequestDto;
+import com.zoe.server.domain.patient.enums.PatientImportFormat;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.function.IntPredicate;
+
+/**
+ * Reads import rows one line at a time, so only the current line is held in
+ * memory. CSV needs a header naming the {@link RegisterPatientRequestDto} fields;
+ * {@code confirmPassword} may be left out and then defaults to {@code password}.
+ * Quoted CSV fields may contain commas and doubled quotes but not line breaks,
+ * and are kept verbatim; unquoted fields are trimmed, except the passwords.
+ * A line longer than {@code maxLineLength} characters is skipped and reported as
+ * an invalid row instead of being read into memory.
+ */
+class PatientImportReader implements Iterator<PatientImportReader.Row> {
+
+    record Row(int number, RegisterPatientRequestDto request, String error) {
+    }
+
+    private static final List<String> CSV_COLUMNS =
+            List.of("firstname", "lastname", "email", "password", "confirmpassword");
+
+    private final BufferedReader reader;
+    private final PatientImportFormat format;
+    private final ObjectMapper objectMapper;
+    private final int maxLineLength;
+    private Map<String, Integer> csvColumns;
+    private IntPredicate untrimmedColumns;
+    private int lineNumber;
+    private int rowNumber;
+    private String nextLine;
+    private boolean lineTooLong;
+
+    PatientImportReader(BufferedReader reader, PatientImportFormat format, ObjectMapper objectMapper, int maxLineLength) {
+        this.reader = reader;
+        this.format = format;
+        this.objectMapper = objectMapper;
+        this.maxLineLength = maxLineLength;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (nextLine != null) {
+            return true;
+        }
+        try {
+            if (format == PatientImportFormat.CSV && csvColumns == null) {
+                String header = readNonBlankLine();
+                if (header == null) {
+                    return false;
+                }
+                if (lineTooLong) {
+                    throw new IllegalArgumentException("CSV header is longer than " + maxLineLength + " characters");
+                }
+                csvColumns = parseHeader(header);
+            }
+            nextLine = readNonBlankLine();
+            return nextLine != null;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public Row next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        String line = nextLine;
+        nextLine = null;
+        int number = ++rowNumber;
+        if (lineTooLong) {
+            return new Row(number, null, "Line longer than " + maxLineLength + " characters on line " + lineNumber);
+        }
+        try {
+            RegisterPatientRequestDto request = format == PatientImportFormat.CSV
+                    ? parseCsv(line)
+                    : objectMapper.readValue(line, RegisterPatientRequestDto.class);
+            return new Row(number, request, null);
+        } catch (JsonProcessingException e) {
+            return new Row(number, null, "Malformed JSON on line " + lineNumber);
+        } catch (IllegalArgumentException e) {
+            return new Row(number, null, e.getMessage() + " on line " + lineNumber);
+        }
+    }
+
+    private String readNonBlankLine() throws IOException {
+        String line;
+        do {
+            line = readLine();
+        } while (line != null && !lineTooLong && line.isBlank());
+        return line;
+    }
+
+    /**
+     * Like {@link BufferedReader#readLine}, but keeps at most {@code maxLineLength}
+     * characters and sets {@link #lineTooLong} when the rest had to be skipped.
+     */
+    private String readLine() throws IOException {
+        int c = reader.read();
+        if (c == -1) {
+            return null;
+        }
+        lineNumber++;
+        lineTooLong = false;
+        StringBuilder line = new StringBuilder();
+        while (c != -1 && c != '\n' && c != '\r') {
+            if (line.length() < maxLineLength) {
+                line.append((char) c);
+            } else {
+                lineTooLong = true;
+            }
+            c = reader.read();
+        }
+        if (c == '\r') {
+            reader.mark(1);
+            if (reader.read() != '\n') {
+                reader.reset();
+            }
+        }
+        return line.toString();
+    }
+
+    private Map<String, Integer> parseHeader(String header) {
+        List<String> names = splitCsv(header.startsWith("\uFEFF") ? header.substring(1) : header, index -> false);
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < names.size(); i++) {
+            columns.put(names.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        for (String required : CSV_COLUMNS.subList(0, 4)) {
+            if (!columns.containsKey(required)) {
+                throw new IllegalArgumentException("CSV header is missing the " + required + " column");
+            }
+        }
+        // Leading or trailing spaces can be part of a password
+        untrimmedColumns = index -> index == columns.get("password") || index == columns.getOrDefault("confirmpassword", -1);
+        return columns;
+    }
+
+    private RegisterPatientRequestDto parseCsv(String line) {
+        List<String> values = splitCsv(line, untrimmedColumns);
+        String password = column(values, "password");
+        String confirmPassword = csvColumns.containsKey("confirmpassword") ? column(values, "confirmpassword") : password;
+        return new RegisterPatientRequestDto(
+                column(values, "firstname"),
+                column(values, "lastname"),
+                column(values, "email"),
+                password,
+                confirmPassword);
+    }
+
+    private String column(List<String> values, String name) {
+        int index = csvColumns.get(name);
+        return index < values.size() ? values.get(index) : null;
+    }
+
+    private static List<String> splitCsv(String line, IntPredicate untrimmed) {
+        List<String> values = new ArrayList<>();
+        StringBuilder value = new StringBuilder();
+        boolean quoted = false;
+        boolean wasQuoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    value.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    value.append(c);
+                }
+            } else if (c == '"') {
+                if (!wasQuoted && value.toString().isBlank()) {
+                    // Spaces before the opening quote are not part of the value
+                    value.setLength(0);
+                    wasQuoted = true;
+                }
+                quoted = true;
+            } else if (c == ',') {
+                values.add(fieldValue(value, wasQuoted || untrimmed.test(values.size())));
+                value.setLength(0);
+                wasQuoted = false;
+            } else if (!wasQuoted || !Character.isWhitespace(c)) {
+                value.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field");
+        }
+        values.add(fieldValue(value, wasQuoted || untrimmed.test(values.size())));
+        return values;
+    }
+
+    private static String fieldValue(StringBuilder value, boolean verbatim) {
+        return verbatim ? value.toString() : value.toString().trim();
+    }
+}
@@ -0,0 +1,255 @@
+package com.zoe.server.domain.patient.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zoe.server.config.security.OffloadedPasswordEncoder;
+import com.zoe.server.domain.auth.dtos.RegisterPatientRequestDto;
+import com.zoe.server.domain.auth.exceptions.AuthCapacityExceededException;
+import com.zoe.server.domain.auth.mappers.AuthMapper;
+import com.zoe.server.domain.patient.dtos.PatientImportResultDto;
+import com.zoe.server.domain.patient.enums.PatientImportFormat;
+import com.zoe.server.domain.patient.enums.PatientImportStatus;
+import com.zoe.server.domain.user.models.User;
+import com.zoe.server.domain.user.repositories.UserConstraints;
+import com.zoe.server.domain.user.repositories.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Registers patients from a CSV or NDJSON stream, e.g. when a clinic is onboarded.
+ * <p>
+ * Rows are processed in chunks of {@code patient-import.chunk-size}: validated,
+ * hashed in parallel on the password hashing pool and inserted in one
+ * transaction, which Hibernate sends as JDBC batches. The persistence context is
+ * cleared after every chunk and results are handed to the caller per chunk, so
+ * memory does not grow with the size of the file. A chunk that hits a constraint
+ * is retried row by row to tell which rows were duplicates. At most
+ * {@code patient-import.hashing-parallelism} hashes are queued at a time, leaving
+ * room on the pool for interactive logins.
+ */
+@Service
+public class PatientImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PatientImportService.class);
+
+    private final AuthMapper authMapper;
+    private final OffloadedPasswordEncoder passwordEncoder;
+    private final UserRepository userRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final int chunkSize;
+    private final int hashingParallelism;
+    private final int maxLineLength;
+    private final Map<PatientImportStatus, Counter> rowCounters = new EnumMap<>(PatientImportStatus.class);
+
+    public PatientImportService(AuthMapper authMapper,
+                                OffloadedPasswordEncoder passwordEncoder,
+                                UserRepository userRepository,
+                                EntityManager entityManager,
+                                TransactionTemplate transactionTemplate,
+                                Validator validator,
+                                ObjectMapper objectMapper,
+                                MeterRegistry meterRegistry,
+                                @Value("${patient-import.chunk-size:200}") int chunkSize,
+                                @Value("${patient-import.hashing-parallelism:0}") int hashingParallelism,
+                                @Value("${patient-import.max-line-length:8192}") int maxLineLength) {
+        this.authMapper = authMapper;
+        this.passwordEncoder = passwordEncoder;
+        this.userRepository = userRepository;
+        this.entityManager = entityManager;
+        this.transactionTemplate = transactionTemplate;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.chunkSize = chunkSize;
+        this.hashingParallelism = hashingParallelism > 0
+                ? hashingParallelism
+                : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        this.maxLineLength = maxLineLength;
+        for (PatientImportStatus status : PatientImportStatus.values()) {
+            rowCounters.put(status, Counter.builder("patients.import.rows")
+                    .tag("status", status.name().toLowerCase())
+                    .register(meterRegistry));
+        }
+    }
+
+    /**
+     * Imports every row of {@code input}, passing the results of each chunk to
+     * {@code chunkResults} in row order once the chunk is committed. Input without
+     * a usable CSV header yields a single row 0 result.
+     */
+    public void importPatients(BufferedReader input,
+                               PatientImportFormat format,
+                               Consumer<List<PatientImportResultDto>> chunkResults) {
+        PatientImportReader rows = new PatientImportReader(input, format, objectMapper, maxLineLength);
+        try {
+            rows.hasNext();
+        } catch (IllegalArgumentException e) {
+            chunkResults.accept(List.of(result(0, null, PatientImportStatus.INVALID, e.getMessage())));
+            return;
+        }
+        List<PatientImportReader.Row> chunk = new ArrayList<>(chunkSize);
+        int total = 0;
+        int created = 0;
+        while (rows.hasNext()) {
+            chunk.add(rows.next());
+            if (chunk.size() == chunkSize) {
+                created += importChunk(chunk, chunkResults);
+                total += chunk.size();
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            created += importChunk(chunk, chunkResults);
+            total += chunk.size();
+        }
+        logger.info("Imported {} of {} patient rows", created, total);
+    }
+
+    private int importChunk(List<PatientImportReader.Row> chunk, Consumer<List<PatientImportResultDto>> chunkResults) {
+        List<PatientImportResultDto> results = new ArrayList<>(chunk.size());
+        List<PendingPatient> valid = validate(chunk, results);
+        List<PendingPatient> hashed = hash(valid, results);
+        persist(hashed, results);
+        results.sort(Comparator.comparingInt(PatientImportResultDto::getRow));
+        results.forEach(result -> rowCounters.get(result.getStatus()).increment());
+        chunkResults.accept(results);
+        return (int) results.stream().filter(result -> result.getStatus() == PatientImportStatus.CREATED).count();
+    }
+
+    private List<PendingPatient> validate(List<PatientImportReader.Row> chunk, List<PatientImportResultDto> results) {
+        List<PendingPatient> valid = new ArrayList<>(chunk.size());
+        Set<String> emails = new HashSet<>();
+        for (PatientImportReader.Row row : chunk) {
+            RegisterPatientRequestDto request = row.request();
+            if (request == null) {
+                results.add(result(row.number(), null, PatientImportStatus.INVALID, row.error()));
+                continue;
+            }
+            Set<ConstraintViolation<RegisterPatientRequestDto>> violations = validator.validate(request);
+            if (!violations.isEmpty()) {
+                String message = violations.stream()
+                        .map(ConstraintViolation::getMessage)
+                        .sorted()
+                        .collect(Collectors.joining("; "));
+                results.add(result(row.number(), request.getEmail(), PatientImportStatus.INVALID, message));
+            } else if (!Objects.equals(request.getPassword(), request.getConfirmPassword())) {
+                results.add(result(row.number(), request.getEmail(), PatientImportStatus.INVALID, "Passwords do not match!"));
+            } else if (!emails.add(request.getEmail())) {
+                results.add(result(row.number(), request.getEmail(), PatientImportStatus.DUPLICATE, "Email repeated in the import"));
+            } else {
+                valid.add(new PendingPatient(row.number(), request, null));
+            }
+        }
+        return valid;
+    }
+
+    private List<PendingPatient> hash(List<PendingPatient> valid, List<PatientImportResultDto> results) {
+        List<PendingPatient> hashed = new ArrayList<>(valid.size());
+        for (int start = 0; start < valid.size(); start += hashingParallelism) {
+            List<PendingPatient> window = valid.subList(start, Math.min(start + hashingParallelism, valid.size()));
+            List<CompletableFuture<String>> hashes = new ArrayList<>(window.size());
+            for (PendingPatient patient : window) {
+                hashes.add(submitHash(patient.request().getPassword()));
+            }
+            for (int i = 0; i < window.size(); i++) {
+                PendingPatient patient = window.get(i);
+                try {
+                    hashed.add(patient.withPasswordHash(hashes.get(i).join()));
+                } catch (CompletionException e) {
+                    String message = e.getCause() instanceof AuthCapacityExceededException
+                            ? "Server is busy, please retry this row"
+                            : "Password could not be hashed";
+                    results.add(result(patient.row(), patient.request().getEmail(), PatientImportStatus.FAILED, message));
+                }
+            }
+        }
+        return hashed;
+    }
+
+    private CompletableFuture<String> submitHash(String password) {
+        try {
+            return passwordEncoder.encodeAsync(password);
+        } catch (AuthCapacityExceededException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private void persist(List<PendingPatient> patients, List<PatientImportResultDto> results) {
+        if (patients.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                userRepository.saveAll(patients.stream().map(this::toUser).toList());
+                entityManager.flush();
+                entityManager.clear();
+            });
+            for (PendingPatient patient : patients) {
+                results.add(result(patient.row(), patient.request().getEmail(), PatientImportStatus.CREATED, null));
+            }
+        } catch (DataIntegrityViolationException e) {
+            logger.debug("Patient import chunk hit a constraint, retrying its {} rows one by one", patients.size());
+            for (PendingPatient patient : patients) {
+                results.add(persistOne(patient));
+            }
+        }
+    }
+
+    private PatientImportResultDto persistOne(PendingPatient patient) {
+        String email = patient.request().getEmail();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                userRepository.saveAndFlush(toUser(patient));
+                entityManager.clear();
+            });
+            return result(patient.row(), email, PatientImportStatus.CREATED, null);
+        } catch (DataIntegrityViolationException e) {
+            if (UserConstraints.violatesUniqueEmail(e)) {
+                return result(patient.row(), email, PatientImportStatus.DUPLICATE, "Email already registered");
+            }
+            logger.warn("Failed to import patient row {}", patient.row(), e);
+            return result(patient.row(), email, PatientImportStatus.FAILED, "Row could not be saved");
+        }
+    }
+
+    private User toUser(PendingPatient patient) {
+        User user = authMapper.toPatientUser(patient.request(), patient.passwordHash());
+        user.getPatient().setUser(user);
+        return user;
+    }
+
+    private static PatientImportResultDto result(int row, String email, PatientImportStatus status, String message) {
+        return new PatientImportResultDto(row, email, status, message);
+    }
+
+    private record PendingPatient(int row, RegisterPatientRequestDto request, String passwordHash) {
+
+        PendingPatient withPasswordHash(String passwordHash) {
+            return new PendingPatient(row, request, passwordHash);
+        }
+    }
+}
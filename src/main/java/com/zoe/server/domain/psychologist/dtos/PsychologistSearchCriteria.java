@@ -0,0 +1,28 @@
+package com.zoe.server.domain.psychologist.dtos;
+
+import java.util.Locale;
+
+/**
+ * Normalised directory filters; also the cache key of a search, so two requests
+ * that differ only in case or whitespace share one cache entry. Blank filters
+ * become {@code null}, which means "no filter".
+ */
+public record PsychologistSearchCriteria(String state, String city, String zipPrefix, Long after, int limit) {
+
+    public static PsychologistSearchCriteria of(String state, String city, String zipPrefix, Long after, int limit) {
+        return new PsychologistSearchCriteria(
+                normalise(state, true),
+                normalise(city, false),
+                normalise(zipPrefix, false),
+                after,
+                limit);
+    }
+
+    private static String normalise(String value, boolean upperCase) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        String trimmed = value.trim();
+        return upperCase ? trimmed.toUpperCase(Locale.ROOT) : trimmed.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,21 @@
+package com.zoe.server.domain.psychologist.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * One page of directory results. Pass {@code nextCursor} back as {@code after} to
+ * get the next page; it is {@code null} on the last page.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class PsychologistSearchResponseDto {
+    private List<PsychologistSummaryDto> items;
+    private Long nextCursor;
+}
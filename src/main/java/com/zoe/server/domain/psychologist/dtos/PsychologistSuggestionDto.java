@@ -0,0 +1,17 @@
+package com.zoe.server.domain.psychologist.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class PsychologistSuggestionDto {
+    private Long id;
+    private String crpNumber;
+    private String city;
+    private String state;
+}
@@ -0,0 +1,19 @@
+package com.zoe.server.domain.psychologist.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class PsychologistSummaryDto {
+    private Long id;
+    private String crpNumber;
+    private String city;
+    private String state;
+    private String zipCode;
+    private String practiceAddress;
+}
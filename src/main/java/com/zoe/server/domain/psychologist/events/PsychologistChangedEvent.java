@@ -0,0 +1,9 @@
+package com.zoe.server.domain.psychologist.events;
+
+/**
+ * A psychologist row was inserted, updated or deleted. Published from inside the
+ * writing transaction; listeners that must only see committed data use
+ * {@code @TransactionalEventListener}.
+ */
+public record PsychologistChangedEvent(Long id, String crpNumber, String city, String state, boolean deleted) {
+}
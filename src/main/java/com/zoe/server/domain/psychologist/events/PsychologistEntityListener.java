@@ -0,0 +1,40 @@
+package com.zoe.server.domain.psychologist.events;
+
+import com.zoe.server.domain.psychologist.models.Psychologist;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+/**
+ * Turns JPA lifecycle callbacks on {@link Psychologist} into
+ * {@link PsychologistChangedEvent}s, so every write path is covered without the
+ * services having to remember to publish. Hibernate obtains this listener from
+ * the Spring context.
+ */
+@Component
+public class PsychologistEntityListener {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    public PsychologistEntityListener(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void onSaved(Psychologist psychologist) {
+        eventPublisher.publishEvent(event(psychologist, false));
+    }
+
+    @PostRemove
+    public void onRemoved(Psychologist psychologist) {
+        eventPublisher.publishEvent(event(psychologist, true));
+    }
+
+    private static PsychologistChangedEvent event(Psychologist psychologist, boolean deleted) {
+        return new PsychologistChangedEvent(psychologist.getId(), psychologist.getCrpNumber(),
+                psychologist.getCity(), psychologist.getState(), deleted);
+    }
+}
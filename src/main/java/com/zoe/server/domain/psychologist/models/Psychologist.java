@@ -1,5 +1,6 @@
 package com.zoe.server.domain.psychologist.models;
 
+import com.zoe.server.domain.psychologist.events.PsychologistEntityListener;
 import com.zoe.server.domain.user.models.User;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
@@ -7,12 +8,16 @@ import jakarta.validation.constraints.Null;
 import lombok.Getter;
 import lombok.Setter;
 
+import java.time.Instant;
+
 @Entity
+@EntityListeners(PsychologistEntityListener.class)
 @Getter
 @Setter
 public class Psychologist {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "psychologist_seq")
+    @SequenceGenerator(name = "psychologist_seq", sequenceName = "psychologist_seq", allocationSize = 50)
     private Long id;
     private String crpNumber;
     private String phoneNumber;
@@ -26,6 +31,9 @@ public class Psychologist {
     private String zipCode;
     private boolean agreedTermServiceAndPrivacyPolicy;
     private boolean agreedHippaCompliance;
+    // Maintained by the database (V14), read by the suggest index's delta reload
+    @Column(insertable = false, updatable = false, columnDefinition = "timestamp(6) with time zone not null default now()")
+    private Instant updatedAt;
     @OneToOne
     @JoinColumn(name = "user_id", nullable = false, unique = true)
     private User user;
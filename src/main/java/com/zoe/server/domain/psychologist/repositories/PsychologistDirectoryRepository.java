@@ -0,0 +1,73 @@
+package com.zoe.server.domain.psychologist.repositories;
+
+import com.zoe.server.domain.psychologist.dtos.PsychologistSearchCriteria;
+import com.zoe.server.domain.psychologist.dtos.PsychologistSummaryDto;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Directory search over active psychologists with keyset pagination: each page
+ * seeks past the last id of the previous one instead of using OFFSET, so deep
+ * pages cost the same as the first. Only the filters that are set end up in the
+ * WHERE clause, letting the planner pick the matching index from
+ * {@code V11__psychologist_directory_indexes}.
+ */
+@Repository
+public class PsychologistDirectoryRepository {
+
+    private static final String SELECT = """
+            SELECT p.id, p.crp_number, p.city, p.state, p.zip_code, p.practice_address
+            FROM psychologist p
+            JOIN users u ON u.id = p.user_id
+            JOIN user_credentials c ON c.id = u.user_credentials_id
+            WHERE c.is_active
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public PsychologistDirectoryRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Returns up to {@code limit} rows ordered by id, starting after
+     * {@code criteria.after()}.
+     */
+    public List<PsychologistSummaryDto> search(PsychologistSearchCriteria criteria, int limit) {
+        StringBuilder sql = new StringBuilder(SELECT);
+        List<Object> args = new ArrayList<>(5);
+        if (criteria.state() != null) {
+            sql.append(" AND upper(p.state) = ?");
+            args.add(criteria.state());
+        }
+        if (criteria.city() != null) {
+            sql.append(" AND lower(p.city) LIKE ? ESCAPE '\\'");
+            args.add("%" + escapeLike(criteria.city()) + "%");
+        }
+        if (criteria.zipPrefix() != null) {
+            sql.append(" AND p.zip_code LIKE ? ESCAPE '\\'");
+            args.add(escapeLike(criteria.zipPrefix()) + "%");
+        }
+        if (criteria.after() != null) {
+            sql.append(" AND p.id > ?");
+            args.add(criteria.after());
+        }
+        sql.append(" ORDER BY p.id LIMIT ?");
+        args.add(limit);
+        return jdbcTemplate.query(sql.toString(), (rs, rowNum) -> new PsychologistSummaryDto(
+                rs.getLong("id"),
+                rs.getString("crp_number"),
+                rs.getString("city"),
+                rs.getString("state"),
+                rs.getString("zip_code"),
+                rs.getString("practice_address")
+        ), args.toArray());
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
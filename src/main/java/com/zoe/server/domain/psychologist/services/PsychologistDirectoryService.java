@@ -0,0 +1,72 @@
+package com.zoe.server.domain.psychologist.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.zoe.server.domain.psychologist.dtos.PsychologistSearchCriteria;
+import com.zoe.server.domain.psychologist.dtos.PsychologistSearchResponseDto;
+import com.zoe.server.domain.psychologist.dtos.PsychologistSummaryDto;
+import com.zoe.server.domain.psychologist.repositories.PsychologistDirectoryRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Public psychologist directory. Pages are cached per normalised query for a
+ * short TTL ({@code psychologist-search.cache.ttl}), which absorbs the repeated
+ * first-page searches that make up most of the traffic; a newly registered
+ * psychologist shows up once the entry expires.
+ */
+@Service
+public class PsychologistDirectoryService implements MeterBinder {
+
+    public static final int MAX_PAGE_SIZE = 100;
+
+    private final PsychologistDirectoryRepository directoryRepository;
+    private final Cache<PsychologistSearchCriteria, PsychologistSearchResponseDto> cache;
+
+    public PsychologistDirectoryService(
+            PsychologistDirectoryRepository directoryRepository,
+            @Value("${psychologist-search.cache.max-size:10000}") long maxSize,
+            @Value("${psychologist-search.cache.ttl:PT30S}") Duration ttl) {
+        this.directoryRepository = directoryRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    public PsychologistSearchResponseDto search(PsychologistSearchCriteria criteria) {
+        if (criteria.limit() < 1 || criteria.limit() > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        PsychologistSearchResponseDto cached = cache.getIfPresent(criteria);
+        if (cached != null) {
+            return cached;
+        }
+        // Not cache.get(key, loader): the query would run under Caffeine's compute lock
+        PsychologistSearchResponseDto page = load(criteria);
+        cache.put(criteria, page);
+        return page;
+    }
+
+    private PsychologistSearchResponseDto load(PsychologistSearchCriteria criteria) {
+        // One extra row tells whether there is a next page without a COUNT
+        List<PsychologistSummaryDto> rows = directoryRepository.search(criteria, criteria.limit() + 1);
+        if (rows.size() <= criteria.limit()) {
+            return new PsychologistSearchResponseDto(List.copyOf(rows), null);
+        }
+        List<PsychologistSummaryDto> items = List.copyOf(rows.subList(0, criteria.limit()));
+        return new PsychologistSearchResponseDto(items, items.get(items.size() - 1).getId());
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "psychologist-search");
+    }
+}
@@ -0,0 +1,290 @@
+package com.zoe.server.domain.psychologist.services;
+
+import com.zoe.server.domain.psychologist.dtos.PsychologistSuggestionDto;
+import com.zoe.server.domain.psychologist.events.PsychologistChangedEvent;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.text.Normalizer;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory prefix index over psychologists' CRP numbers and cities for the
+ * front-desk typeahead, answering without touching the database.
+ * <p>
+ * Each key is stored as a sorted {@code (key, id)} entry, so a prefix lookup is a
+ * range scan of a skip list. CRP keys keep only the digits ({@code 06/123456}
+ * becomes {@code 06123456}); city keys are lower-cased and accent-free, and
+ * interned because many practitioners share a city. Only psychologists with an
+ * active account are indexed.
+ * <p>
+ * The index is streamed from the table when the application is ready and then
+ * follows committed {@link PsychologistChangedEvent}s from this node. Writes made
+ * on other nodes, and accounts being deactivated or reactivated, are picked up by
+ * a periodic delta reload of the rows whose {@code updated_at} moved past the last
+ * one seen, less {@code psychologist-suggest.reload-overlap} for transactions that
+ * committed late.
+ */
+@Component
+public class PsychologistSuggestIndex implements MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(PsychologistSuggestIndex.class);
+
+    private static final String SELECT = """
+            SELECT p.id, p.crp_number, p.city, p.state, p.updated_at, c.is_active
+            FROM psychologist p
+            JOIN users u ON u.id = p.user_id
+            JOIN user_credentials c ON c.id = u.user_credentials_id
+            """;
+    private static final String SELECT_CHANGED = SELECT + "WHERE p.updated_at > ?";
+    private static final Pattern NON_DIGITS = Pattern.compile("\\D");
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final JdbcTemplate streamingJdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ConcurrentHashMap<Long, PsychologistSuggestionDto> entries = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListSet<Key> crpKeys = new ConcurrentSkipListSet<>();
+    private final ConcurrentSkipListSet<Key> cityKeys = new ConcurrentSkipListSet<>();
+    // Ids deleted while the initial load runs, so it cannot bring them back
+    private final Set<Long> removedDuringBuild = ConcurrentHashMap.newKeySet();
+    // Psychologists whose account is deactivated; their own saves must not index them
+    private final Set<Long> inactive = ConcurrentHashMap.newKeySet();
+    private final JdbcTemplate jdbcTemplate;
+    private final Duration reloadOverlap;
+    private volatile boolean building;
+    private volatile Instant lastUpdatedAt;
+
+    public PsychologistSuggestIndex(JdbcTemplate jdbcTemplate,
+                                    PlatformTransactionManager transactionManager,
+                                    @Value("${psychologist-suggest.fetch-size:1000}") int fetchSize,
+                                    @Value("${psychologist-suggest.reload-overlap:PT1M}") Duration reloadOverlap) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.reloadOverlap = reloadOverlap;
+        // PostgreSQL only streams with a fetch size inside a transaction
+        this.streamingJdbcTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+        this.streamingJdbcTemplate.setFetchSize(fetchSize);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        long start = System.nanoTime();
+        building = true;
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> streamingJdbcTemplate.query(SELECT, (RowCallbackHandler) rs -> {
+                long id = rs.getLong("id");
+                seen(rs.getTimestamp("updated_at"));
+                if (!rs.getBoolean("is_active")) {
+                    inactive.add(id);
+                } else if (!removedDuringBuild.contains(id)) {
+                    PsychologistSuggestionDto row = new PsychologistSuggestionDto(
+                            id, rs.getString("crp_number"), rs.getString("city"), rs.getString("state"));
+                    // Entries written by events during the load are newer than the row read here
+                    entries.computeIfAbsent(id, key -> index(row));
+                }
+            }));
+            if (lastUpdatedAt == null) {
+                lastUpdatedAt = Instant.EPOCH;
+            }
+        } finally {
+            building = false;
+            removedDuringBuild.clear();
+        }
+        logger.info("Built psychologist suggest index with {} entries in {} ms",
+                entries.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Applies the rows changed since the last build or reload, including those
+     * whose account was deactivated or reactivated.
+     */
+    @Scheduled(fixedDelayString = "${psychologist-suggest.reload-interval:PT30S}",
+            initialDelayString = "${psychologist-suggest.reload-interval:PT30S}")
+    public void reloadChanges() {
+        Instant since = lastUpdatedAt;
+        if (since == null || building) {
+            return;
+        }
+        int changed = jdbcTemplate.query(SELECT_CHANGED, (ResultSetExtractor<Integer>) this::applyChanges,
+                Timestamp.from(since.minus(reloadOverlap)));
+        logger.debug("Reloaded {} changed psychologists into the suggest index", changed);
+    }
+
+    int applyChanges(ResultSet rs) throws SQLException {
+        int rows = 0;
+        while (rs.next()) {
+            long id = rs.getLong("id");
+            seen(rs.getTimestamp("updated_at"));
+            if (rs.getBoolean("is_active")) {
+                inactive.remove(id);
+                put(new PsychologistSuggestionDto(
+                        id, rs.getString("crp_number"), rs.getString("city"), rs.getString("state")));
+            } else {
+                inactive.add(id);
+                remove(id);
+            }
+            rows++;
+        }
+        return rows;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPsychologistChanged(PsychologistChangedEvent event) {
+        if (event.id() == null) {
+            return;
+        }
+        if (event.deleted()) {
+            if (building) {
+                removedDuringBuild.add(event.id());
+            }
+            inactive.remove(event.id());
+            remove(event.id());
+            return;
+        }
+        if (inactive.contains(event.id())) {
+            return;
+        }
+        put(new PsychologistSuggestionDto(event.id(), event.crpNumber(), event.city(), event.state()));
+    }
+
+    /**
+     * Psychologists whose CRP number (for queries without letters) or city starts
+     * with {@code query}, ordered by key, at most {@code limit} of them.
+     */
+    public List<PsychologistSuggestionDto> suggest(String query, int limit) {
+        if (query == null || query.isBlank() || limit < 1) {
+            return Collections.emptyList();
+        }
+        boolean byCrp = query.chars().noneMatch(Character::isLetter);
+        String prefix = byCrp ? crpKey(query) : cityKey(query);
+        if (prefix == null) {
+            return Collections.emptyList();
+        }
+        Set<Key> range = (byCrp ? crpKeys : cityKeys).subSet(
+                new Key(prefix, Long.MIN_VALUE), true,
+                new Key(prefix + Character.MAX_VALUE, Long.MIN_VALUE), false);
+        List<PsychologistSuggestionDto> suggestions = new ArrayList<>(Math.min(limit, 16));
+        for (Key key : range) {
+            PsychologistSuggestionDto suggestion = entries.get(key.id());
+            if (suggestion != null) {
+                suggestions.add(suggestion);
+                if (suggestions.size() == limit) {
+                    break;
+                }
+            }
+        }
+        return suggestions;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("psychologists.suggest.entries", entries, ConcurrentHashMap::size)
+                .register(registry);
+    }
+
+    private void put(PsychologistSuggestionDto suggestion) {
+        entries.compute(suggestion.getId(), (id, previous) -> {
+            if (previous != null) {
+                unindex(previous);
+            }
+            return index(suggestion);
+        });
+    }
+
+    private void remove(long id) {
+        entries.computeIfPresent(id, (key, previous) -> {
+            unindex(previous);
+            return null;
+        });
+    }
+
+    private void seen(Timestamp updatedAt) {
+        if (updatedAt != null) {
+            Instant instant = updatedAt.toInstant();
+            Instant last = lastUpdatedAt;
+            if (last == null || instant.isAfter(last)) {
+                lastUpdatedAt = instant;
+            }
+        }
+    }
+
+    private PsychologistSuggestionDto index(PsychologistSuggestionDto suggestion) {
+        String crp = crpKey(suggestion.getCrpNumber());
+        if (crp != null) {
+            crpKeys.add(new Key(crp, suggestion.getId()));
+        }
+        String city = cityKey(suggestion.getCity());
+        if (city != null) {
+            cityKeys.add(new Key(city.intern(), suggestion.getId()));
+        }
+        return suggestion;
+    }
+
+    private void unindex(PsychologistSuggestionDto suggestion) {
+        String crp = crpKey(suggestion.getCrpNumber());
+        if (crp != null) {
+            crpKeys.remove(new Key(crp, suggestion.getId()));
+        }
+        String city = cityKey(suggestion.getCity());
+        if (city != null) {
+            cityKeys.remove(new Key(city, suggestion.getId()));
+        }
+    }
+
+    static String crpKey(String value) {
+        if (value == null) {
+            return null;
+        }
+        String digits = NON_DIGITS.matcher(value).replaceAll("");
+        return digits.isEmpty() ? null : digits;
+    }
+
+    static String cityKey(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        String folded = DIACRITICS.matcher(Normalizer.normalize(value.trim(), Normalizer.Form.NFD)).replaceAll("");
+        return WHITESPACE.matcher(folded.toLowerCase(Locale.ROOT)).replaceAll(" ");
+    }
+
+    private record Key(String key, long id) implements Comparable<Key> {
+
+        @Override
+        public int compareTo(Key other) {
+            int byKey = key.compareTo(other.key);
+            return byKey != 0 ? byKey : Long.compare(id, other.id);
+        }
+    }
+}
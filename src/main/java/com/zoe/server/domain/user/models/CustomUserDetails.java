@@ -1,34 +1,33 @@
 package com.zoe.server.domain.user.models;
 
-import com.zoe.server.domain.user.enums.UserRole;
 import lombok.Getter;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
+import java.time.Instant;
 import java.util.Collection;
 import java.util.List;
 
 @Getter
 public class CustomUserDetails implements UserDetails {
-    private final User user;
+    private final UserAuthView account;
 
-    public CustomUserDetails(User user){this.user = user;}
+    public CustomUserDetails(UserAuthView account){this.account = account;}
 
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
-        UserRole role = user.getUserCredentials().getUserRole();
-        return List.of(new SimpleGrantedAuthority("ROLE_" + role.name()));
+        return List.of(new SimpleGrantedAuthority("ROLE_" + account.role().name()));
     }
 
     @Override
     public String getPassword() {
-        return user.getUserCredentials().getPasswordHash();
+        return account.passwordHash();
     }
 
     @Override
     public String getUsername() {
-        return user.getUserCredentials().getEmail();
+        return account.email();
     }
 
     @Override
@@ -38,7 +37,7 @@ public class CustomUserDetails implements UserDetails {
 
     @Override
     public boolean isAccountNonLocked() {
-        return !user.getUserCredentials().isLocked();
+        return !account.isLockedAt(Instant.now());
     }
 
     @Override
@@ -48,6 +47,6 @@ public class CustomUserDetails implements UserDetails {
 
     @Override
     public boolean isEnabled() {
-        return user.getUserCredentials().isActive();
+        return account.active();
     }
 }
@@ -0,0 +1,28 @@
+package com.zoe.server.domain.user.models;
+
+import com.zoe.server.domain.user.enums.UserRole;
+
+import java.time.Instant;
+
+/**
+ * Read-only slice of a user needed to authenticate it, loaded with a single join
+ * of {@code users} and {@code user_credentials} instead of the whole aggregate.
+ */
+public record UserAuthView(
+        Long id,
+        String email,
+        String passwordHash,
+        UserRole role,
+        boolean locked,
+        Instant lockedUntil,
+        boolean active,
+        int credentialVersion
+) {
+
+    /**
+     * A lock with {@code lockedUntil} set lifts itself once that time has passed.
+     */
+    public boolean isLockedAt(Instant now) {
+        return locked && (lockedUntil == null || lockedUntil.isAfter(now));
+    }
+}
@@ -8,6 +8,7 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
 
 @Entity
@@ -17,7 +18,8 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 public class UserCredentials {
     @Id
-    @GeneratedValue(strategy= GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "user_credentials_seq")
+    @SequenceGenerator(name = "user_credentials_seq", sequenceName = "user_credentials_seq", allocationSize = 50)
     private Long id;
     @Column(nullable = false)
     private UserRole userRole;
@@ -31,7 +33,11 @@ public class UserCredentials {
     @Column
     private boolean isLocked;
     @Column
+    private Instant lockedUntil;
+    @Column
     private boolean isActive;
     @Column
     private LocalDateTime passwordLastChanged;
+    @Column(nullable = false, columnDefinition = "integer default 0")
+    private int credentialVersion = 0;
 }
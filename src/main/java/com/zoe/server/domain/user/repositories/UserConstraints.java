@@ -0,0 +1,50 @@
+package com.zoe.server.domain.user.repositories;
+
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.sql.SQLException;
+
+/**
+ * Names of the database constraints that user writes rely on instead of
+ * checking with a query first.
+ */
+public final class UserConstraints {
+
+    public static final String EMAIL_UNIQUE = "uk_user_credentials_email";
+
+    private static final String UNIQUE_VIOLATION = "23505";
+
+    private UserConstraints() {
+    }
+
+    public static boolean violatesUniqueEmail(DataIntegrityViolationException e) {
+        // Databases not yet migrated may still use Hibernate's generated name
+        return violates(e, EMAIL_UNIQUE) || violatesUnique(e, "email");
+    }
+
+    private static boolean violates(DataIntegrityViolationException e, String constraintName) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation
+                    && constraintName.equalsIgnoreCase(violation.getConstraintName())) {
+                return true;
+            }
+        }
+        String message = e.getMostSpecificCause().getMessage();
+        return message != null && message.contains(constraintName);
+    }
+
+    /**
+     * Whether {@code e} is a unique violation on {@code column} alone, going by the
+     * SQLState and PostgreSQL's {@code Key (column)=(...)} detail.
+     */
+    private static boolean violatesUnique(DataIntegrityViolationException e, String column) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException sqlException && UNIQUE_VIOLATION.equals(sqlException.getSQLState())) {
+                String message = sqlException.getMessage();
+                return message != null && message.contains("Key (" + column + ")=");
+            }
+        }
+        return false;
+    }
+}
@@ -1,14 +1,39 @@
 package com.zoe.server.domain.user.repositories;
 
 import com.zoe.server.domain.user.models.User;
+import com.zoe.server.domain.user.models.UserAuthView;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
 
 @Repository
 public interface UserRepository extends JpaRepository <User, Long>{
+
+    @Query("""
+            SELECT new com.zoe.server.domain.user.models.UserAuthView(
+                u.id, c.email, c.passwordHash, c.userRole, c.isLocked, c.lockedUntil, c.isActive, c.credentialVersion)
+            FROM User u JOIN u.userCredentials c
+            WHERE c.email = :email
+            """)
+    Optional<UserAuthView> findAuthViewByEmail(@Param("email") String email);
+
+    @Query("""
+            SELECT new com.zoe.server.domain.user.models.UserAuthView(
+                u.id, c.email, c.passwordHash, c.userRole, c.isLocked, c.lockedUntil, c.isActive, c.credentialVersion)
+            FROM User u JOIN u.userCredentials c
+            WHERE u.id = :id
+            """)
+    Optional<UserAuthView> findAuthViewById(@Param("id") Long id);
+
+    // The mappedBy one-to-ones cannot be lazy; fetch them in the same select
+    @EntityGraph(attributePaths = {"userCredentials", "psychologist", "patient"})
     Optional<User> findByUserCredentialsEmail(String email);
 
-    boolean existsByUserCredentials_Email(String email);
+    @Override
+    @EntityGraph(attributePaths = {"userCredentials", "psychologist", "patient"})
+    Optional<User> findById(Long id);
 }
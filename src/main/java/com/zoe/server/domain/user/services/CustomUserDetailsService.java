@@ -1,9 +1,8 @@
 package com.zoe.server.domain.user.services;
 
 import com.zoe.server.domain.user.models.CustomUserDetails;
-import com.zoe.server.domain.user.models.User;
+import com.zoe.server.domain.user.models.UserAuthView;
 import com.zoe.server.domain.user.repositories.UserRepository;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
@@ -16,9 +15,9 @@ public class CustomUserDetailsService implements UserDetailsService
     public CustomUserDetailsService(UserRepository userRepository){this.userRepository = userRepository;}
 
     @Override
-    public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException{
-        User user = userRepository.findByUserCredentialsEmail(email)
+    public CustomUserDetails loadUserByUsername(String email) throws UsernameNotFoundException{
+        UserAuthView account = userRepository.findAuthViewByEmail(email)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found: " + email));
-        return new CustomUserDetails(user);
+        return new CustomUserDetails(account);
     }
 }
@@ -0,0 +1,105 @@
+package com.zoe.server.domain.user.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.zoe.server.domain.user.models.CustomUserDetails;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * Node-local cache of authenticated principals keyed by email, so a warm request
+ * through {@code JwtAuthFilter} does not reload the user graph from the database.
+ * Entries expire after a fixed TTL and must be invalidated explicitly whenever the
+ * account is locked, deactivated or its password changes.
+ */
+@Component
+public class UserPrincipalCache implements MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserPrincipalCache.class);
+
+    private final boolean enabled;
+    private final Cache<String, CustomUserDetails> cache;
+
+    public UserPrincipalCache(
+            @Value("${security.principal-cache.enabled:true}") boolean enabled,
+            @Value("${security.principal-cache.max-size:10000}") long maxSize,
+            @Value("${security.principal-cache.ttl:PT5M}") Duration ttl) {
+        this.enabled = enabled;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .evictionListener((String email, CustomUserDetails details, RemovalCause cause) ->
+                        logger.debug("Evicted cached principal {} ({})", email, cause))
+                .build();
+    }
+
+    public CustomUserDetails get(String email, Function<String, CustomUserDetails> loader) {
+        if (!enabled) {
+            return loader.apply(email);
+        }
+        // Load outside the cache's compute path: Caffeine computes under a monitor lock,
+        // which would pin a virtual thread for the whole database round-trip.
+        CustomUserDetails cached = cache.getIfPresent(email);
+        if (cached != null) {
+            return cached;
+        }
+        CustomUserDetails loaded = loader.apply(email);
+        if (loaded != null) {
+            cache.put(email, loaded);
+        }
+        return loaded;
+    }
+
+    public void onAccountLocked(String email) {
+        invalidate(email, "account locked");
+    }
+
+    public void onAccountDeactivated(String email) {
+        invalidate(email, "account deactivated");
+    }
+
+    public void onPasswordChanged(String email) {
+        invalidate(email, "password changed");
+    }
+
+    public void invalidate(String email) {
+        invalidate(email, "explicit invalidation");
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+        logger.info("Invalidated all cached principals");
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    public long estimatedSize() {
+        return cache.estimatedSize();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "principals");
+    }
+
+    private void invalidate(String email, String reason) {
+        if (email == null) {
+            return;
+        }
+        cache.invalidate(email);
+        logger.debug("Invalidated cached principal {}: {}", email, reason);
+    }
+}
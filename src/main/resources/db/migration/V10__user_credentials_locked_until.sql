@@ -0,0 +1,3 @@
+-- Temporary lockouts from repeated failed logins expire on their own; a lock
+-- without locked_until stays until it is lifted explicitly.
+ALTER TABLE user_credentials ADD COLUMN locked_until TIMESTAMP(6) WITH TIME ZONE;
@@ -0,0 +1,13 @@
+-- Indexes behind GET /v1/psychologists/search. Every search is a keyset scan
+-- ordered by id, so the btree indexes carry id as their last column.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- State filter, seeking past the last id of the page. City is left out so the
+-- index is read in id order; a city filter goes through the trigram index below.
+CREATE INDEX idx_psychologist_state_id ON psychologist (upper(state), id);
+
+-- Zip code prefix (LIKE 'prefix%') regardless of the database collation
+CREATE INDEX idx_psychologist_zip_prefix ON psychologist (zip_code text_pattern_ops, id);
+
+-- Case-insensitive partial city names (LIKE '%part%')
+CREATE INDEX idx_psychologist_city_trgm ON psychologist USING gin (lower(city) gin_trgm_ops);
@@ -0,0 +1,21 @@
+-- Databases created before the baseline carry Hibernate's generated name for the
+-- unique email constraint; registration and the patient import recognise
+-- duplicates by uk_user_credentials_email, so give it that name everywhere.
+DO $$
+DECLARE
+    generated_name TEXT;
+BEGIN
+    SELECT c.conname INTO generated_name
+    FROM pg_constraint c
+    JOIN pg_attribute a ON a.attrelid = c.conrelid AND a.attnum = ANY (c.conkey)
+    WHERE c.conrelid = 'user_credentials'::regclass
+      AND c.contype = 'u'
+      AND array_length(c.conkey, 1) = 1
+      AND a.attname = 'email'
+      AND c.conname <> 'uk_user_credentials_email';
+
+    IF generated_name IS NOT NULL THEN
+        EXECUTE format('ALTER TABLE user_credentials RENAME CONSTRAINT %I TO uk_user_credentials_email', generated_name);
+    END IF;
+END
+$$;
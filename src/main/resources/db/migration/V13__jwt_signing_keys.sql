@@ -0,0 +1,13 @@
+-- ES256 access-token signing keys shared by every node. A key without
+-- activated_at is pre-published and signs after the next rotation; one with
+-- retired_at only verifies tokens still in flight. Private keys are stored
+-- encrypted with a key derived from jwt.key-encryption-secret.
+
+CREATE TABLE jwt_signing_keys (
+    kid          VARCHAR(64) PRIMARY KEY,
+    public_key   BYTEA                       NOT NULL,
+    private_key  BYTEA                       NOT NULL,
+    created_at   TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    activated_at TIMESTAMP(6) WITH TIME ZONE,
+    retired_at   TIMESTAMP(6) WITH TIME ZONE
+);
@@ -0,0 +1,35 @@
+-- Change marker for the suggest index's delta reload. A psychologist row is
+-- stamped when it is written and when its account is activated or deactivated,
+-- so nodes can pick up changes made elsewhere with one range scan.
+ALTER TABLE psychologist ADD COLUMN updated_at TIMESTAMP(6) WITH TIME ZONE NOT NULL DEFAULT now();
+
+CREATE INDEX idx_psychologist_updated_at ON psychologist (updated_at);
+
+CREATE OR REPLACE FUNCTION stamp_psychologist_updated_at() RETURNS TRIGGER AS $$
+BEGIN
+    NEW.updated_at := now();
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_psychologist_updated_at
+    BEFORE UPDATE ON psychologist
+    FOR EACH ROW
+EXECUTE FUNCTION stamp_psychologist_updated_at();
+
+CREATE OR REPLACE FUNCTION stamp_psychologist_account_change() RETURNS TRIGGER AS $$
+BEGIN
+    UPDATE psychologist p
+    SET updated_at = now()
+    FROM users u
+    WHERE u.user_credentials_id = NEW.id
+      AND p.user_id = u.id;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_user_credentials_active_changed
+    AFTER UPDATE OF is_active ON user_credentials
+    FOR EACH ROW
+    WHEN (OLD.is_active IS DISTINCT FROM NEW.is_active)
+EXECUTE FUNCTION stamp_psychologist_account_change();
@@ -0,0 +1,66 @@
+-- Schema as previously generated from the JPA entities. Existing databases are
+-- baselined at version 1 (spring.flyway.baseline-on-migrate), so this script only
+-- runs against empty databases.
+
+CREATE TABLE user_credentials (
+    id                    BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_role             SMALLINT     NOT NULL CHECK (user_role BETWEEN 0 AND 1),
+    email                 VARCHAR(255) NOT NULL,
+    password_hash         VARCHAR(255) NOT NULL,
+    logging_attempts      INTEGER      NOT NULL DEFAULT 0,
+    is_locked             BOOLEAN      NOT NULL DEFAULT FALSE,
+    is_active             BOOLEAN      NOT NULL DEFAULT TRUE,
+    password_last_changed TIMESTAMP(6),
+    credential_version    INTEGER      NOT NULL DEFAULT 0,
+    CONSTRAINT uk_user_credentials_email UNIQUE (email)
+);
+
+CREATE TABLE users (
+    id                  BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_credentials_id BIGINT NOT NULL,
+    CONSTRAINT uk_users_user_credentials UNIQUE (user_credentials_id),
+    CONSTRAINT fk_users_user_credentials FOREIGN KEY (user_credentials_id) REFERENCES user_credentials (id)
+);
+
+CREATE TABLE patient (
+    id      BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    cpf     VARCHAR(255),
+    user_id BIGINT NOT NULL,
+    CONSTRAINT uk_patient_user UNIQUE (user_id),
+    CONSTRAINT fk_patient_user FOREIGN KEY (user_id) REFERENCES users (id)
+);
+
+CREATE TABLE psychologist (
+    id                                     BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    crp_number                             VARCHAR(255),
+    phone_number                           VARCHAR(255),
+    practice_address                       VARCHAR(255),
+    state                                  VARCHAR(255),
+    city                                   VARCHAR(255),
+    zip_code                               VARCHAR(255),
+    agreed_term_service_and_privacy_policy BOOLEAN NOT NULL,
+    agreed_hippa_compliance                BOOLEAN NOT NULL,
+    user_id                                BIGINT  NOT NULL,
+    CONSTRAINT uk_psychologist_user UNIQUE (user_id),
+    CONSTRAINT fk_psychologist_user FOREIGN KEY (user_id) REFERENCES users (id)
+);
+
+CREATE TABLE refresh_tokens (
+    id             BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    token_hash     VARCHAR(64)  NOT NULL,
+    user_id        BIGINT       NOT NULL,
+    user_role      VARCHAR(20)  NOT NULL,
+    expires_at     TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    revoked_at     TIMESTAMP(6) WITH TIME ZONE,
+    revoked_reason VARCHAR(100),
+    family_id      VARCHAR(255),
+    is_compromised BOOLEAN      NOT NULL DEFAULT FALSE,
+    last_used_at   TIMESTAMP(6) WITH TIME ZONE,
+    use_count      INTEGER      NOT NULL DEFAULT 0,
+    created_at     TIMESTAMP(6) WITH TIME ZONE
+);
+
+CREATE INDEX idx_refresh_token_hash ON refresh_tokens (token_hash);
+CREATE INDEX idx_refresh_token_user ON refresh_tokens (user_id);
+CREATE INDEX idx_refresh_token_expires ON refresh_tokens (expires_at);
+CREATE INDEX idx_refresh_token_revoked ON refresh_tokens (revoked_at);
@@ -0,0 +1,9 @@
+CREATE TABLE revoked_access_tokens (
+    jti        VARCHAR(36) PRIMARY KEY,
+    user_id    BIGINT,
+    expires_at TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    revoked_at TIMESTAMP(6) WITH TIME ZONE NOT NULL
+);
+
+CREATE INDEX idx_revoked_access_tokens_expires ON revoked_access_tokens (expires_at);
+CREATE INDEX idx_revoked_access_tokens_revoked ON revoked_access_tokens (revoked_at);
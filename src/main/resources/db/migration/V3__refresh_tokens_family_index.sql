@@ -0,0 +1 @@
+CREATE INDEX idx_refresh_token_family ON refresh_tokens (family_id);
@@ -0,0 +1,83 @@
+-- Range-partition refresh_tokens by expires_at, one partition per UTC day.
+-- Expired tokens are removed by detaching and dropping whole partitions instead of
+-- deleting rows.
+
+ALTER TABLE refresh_tokens RENAME TO refresh_tokens_unpartitioned;
+
+CREATE SEQUENCE refresh_tokens_seq;
+
+CREATE TABLE refresh_tokens (
+    id             BIGINT       NOT NULL DEFAULT nextval('refresh_tokens_seq'),
+    token_hash     VARCHAR(64)  NOT NULL,
+    user_id        BIGINT       NOT NULL,
+    user_role      VARCHAR(20)  NOT NULL,
+    expires_at     TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    revoked_at     TIMESTAMP(6) WITH TIME ZONE,
+    revoked_reason VARCHAR(100),
+    family_id      VARCHAR(255),
+    is_compromised BOOLEAN      NOT NULL DEFAULT FALSE,
+    last_used_at   TIMESTAMP(6) WITH TIME ZONE,
+    use_count      INTEGER      NOT NULL DEFAULT 0,
+    created_at     TIMESTAMP(6) WITH TIME ZONE,
+    PRIMARY KEY (id, expires_at)
+) PARTITION BY RANGE (expires_at);
+
+ALTER SEQUENCE refresh_tokens_seq OWNED BY refresh_tokens.id;
+
+-- There is no default partition: expired partitions are removed with
+-- DETACH PARTITION ... CONCURRENTLY, which PostgreSQL refuses while one exists.
+-- An INSERT whose expires_at falls on a day without a partition therefore fails.
+-- RefreshTokenPartitionManager creates the days from yesterday through at least
+-- the refresh-token lifetime at startup and daily, and reports failures on the
+-- auth.refresh-token.partitions.* metrics.
+
+-- Creates the partition for one UTC day. Every node runs this at startup and on a
+-- schedule, so creation is serialised by an advisory lock and a day that already
+-- exists is left alone. Dropping is done from Java, since a concurrent detach
+-- cannot run inside a function.
+CREATE OR REPLACE FUNCTION create_refresh_token_partition(day DATE) RETURNS BOOLEAN AS $$
+DECLARE
+    partition_name TEXT        := 'refresh_tokens_p' || to_char(day, 'YYYYMMDD');
+    lower_bound    TIMESTAMPTZ := day::timestamp AT TIME ZONE 'UTC';
+    upper_bound    TIMESTAMPTZ := (day + 1)::timestamp AT TIME ZONE 'UTC';
+BEGIN
+    PERFORM pg_advisory_xact_lock(hashtext('refresh_tokens_partitions'));
+    IF EXISTS (SELECT 1
+               FROM pg_inherits i
+                        JOIN pg_class c ON c.oid = i.inhrelid
+               WHERE i.inhparent = 'refresh_tokens'::regclass
+                 AND c.relname = partition_name) THEN
+        RETURN FALSE;
+    END IF;
+    EXECUTE format('CREATE TABLE IF NOT EXISTS %I (LIKE refresh_tokens INCLUDING DEFAULTS INCLUDING CONSTRAINTS)', partition_name);
+    EXECUTE format('ALTER TABLE refresh_tokens ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)',
+                   partition_name, lower_bound, upper_bound);
+    RETURN TRUE;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Every day that existing tokens expire on needs a partition before they are copied;
+-- days already past are dropped by the next purge.
+SELECT create_refresh_token_partition(day)
+FROM (SELECT DISTINCT (expires_at AT TIME ZONE 'UTC')::date AS day FROM refresh_tokens_unpartitioned) existing;
+
+SELECT create_refresh_token_partition(day::date)
+FROM generate_series(((now() AT TIME ZONE 'UTC')::date - 1)::timestamp,
+                     ((now() AT TIME ZONE 'UTC')::date + 14)::timestamp,
+                     INTERVAL '1 day') AS day;
+
+INSERT INTO refresh_tokens (id, token_hash, user_id, user_role, expires_at, revoked_at, revoked_reason, family_id,
+                            is_compromised, last_used_at, use_count, created_at)
+SELECT id, token_hash, user_id, user_role, expires_at, revoked_at, revoked_reason, family_id,
+       is_compromised, last_used_at, use_count, created_at
+FROM refresh_tokens_unpartitioned;
+
+SELECT setval('refresh_tokens_seq', COALESCE(MAX(id), 0) + 1, FALSE) FROM refresh_tokens;
+
+DROP TABLE refresh_tokens_unpartitioned;
+
+CREATE INDEX idx_refresh_token_hash ON refresh_tokens (token_hash);
+CREATE INDEX idx_refresh_token_user ON refresh_tokens (user_id);
+CREATE INDEX idx_refresh_token_expires ON refresh_tokens (expires_at);
+CREATE INDEX idx_refresh_token_revoked ON refresh_tokens (revoked_at);
+CREATE INDEX idx_refresh_token_family ON refresh_tokens (family_id);
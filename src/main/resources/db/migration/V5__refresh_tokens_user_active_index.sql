@@ -0,0 +1,4 @@
+-- Serves the per-user token cap and the valid-tokens lookup; supersedes the user_id index.
+CREATE INDEX idx_refresh_token_user_active ON refresh_tokens (user_id, user_role, revoked_at, expires_at, created_at);
+
+DROP INDEX idx_refresh_token_user;
@@ -0,0 +1,28 @@
+-- Replace identity columns with sequences that Hibernate allocates from in blocks of
+-- 50 (pooled optimizer), which lets it batch inserts. The column defaults keep plain
+-- SQL inserts working; each one simply consumes a whole block.
+-- Sequences start so that the first block handed out lies above every existing id.
+
+ALTER TABLE user_credentials ALTER COLUMN id DROP IDENTITY IF EXISTS;
+CREATE SEQUENCE user_credentials_seq INCREMENT BY 50 OWNED BY user_credentials.id;
+SELECT setval('user_credentials_seq', COALESCE(MAX(id), 0) + 50, FALSE) FROM user_credentials;
+ALTER TABLE user_credentials ALTER COLUMN id SET DEFAULT nextval('user_credentials_seq');
+
+ALTER TABLE users ALTER COLUMN id DROP IDENTITY IF EXISTS;
+CREATE SEQUENCE users_seq INCREMENT BY 50 OWNED BY users.id;
+SELECT setval('users_seq', COALESCE(MAX(id), 0) + 50, FALSE) FROM users;
+ALTER TABLE users ALTER COLUMN id SET DEFAULT nextval('users_seq');
+
+ALTER TABLE patient ALTER COLUMN id DROP IDENTITY IF EXISTS;
+CREATE SEQUENCE patient_seq INCREMENT BY 50 OWNED BY patient.id;
+SELECT setval('patient_seq', COALESCE(MAX(id), 0) + 50, FALSE) FROM patient;
+ALTER TABLE patient ALTER COLUMN id SET DEFAULT nextval('patient_seq');
+
+ALTER TABLE psychologist ALTER COLUMN id DROP IDENTITY IF EXISTS;
+CREATE SEQUENCE psychologist_seq INCREMENT BY 50 OWNED BY psychologist.id;
+SELECT setval('psychologist_seq', COALESCE(MAX(id), 0) + 50, FALSE) FROM psychologist;
+ALTER TABLE psychologist ALTER COLUMN id SET DEFAULT nextval('psychologist_seq');
+
+-- refresh_tokens already draws from refresh_tokens_seq (V4); widen its increment.
+ALTER SEQUENCE refresh_tokens_seq INCREMENT BY 50;
+SELECT setval('refresh_tokens_seq', COALESCE(MAX(id), 0) + 50, FALSE) FROM refresh_tokens;
@@ -0,0 +1,14 @@
+-- selector.verifier refresh tokens: rows are found by a short selector and the
+-- verifier is checked against a 32-byte digest. token_hash is kept, and only
+-- indexed where present, until the last legacy token has expired.
+
+ALTER TABLE refresh_tokens ALTER COLUMN token_hash DROP NOT NULL;
+ALTER TABLE refresh_tokens ADD COLUMN selector VARCHAR(16);
+ALTER TABLE refresh_tokens ADD COLUMN verifier_hash BYTEA CHECK (octet_length(verifier_hash) = 32);
+ALTER TABLE refresh_tokens ADD CONSTRAINT chk_refresh_token_credential
+    CHECK (token_hash IS NOT NULL OR (selector IS NOT NULL AND verifier_hash IS NOT NULL));
+
+CREATE INDEX idx_refresh_token_selector ON refresh_tokens (selector) WHERE selector IS NOT NULL;
+
+DROP INDEX idx_refresh_token_hash;
+CREATE INDEX idx_refresh_token_hash ON refresh_tokens (token_hash) WHERE token_hash IS NOT NULL;
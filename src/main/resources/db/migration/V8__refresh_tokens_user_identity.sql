@@ -0,0 +1,18 @@
+-- Carry the user's email and credential version on each refresh token, so a
+-- refresh can issue an access token from the token row alone.
+
+-- credential_version was mapped on UserCredentials without a migration of its own;
+-- only the V1 baseline creates it, which databases baselined at version 1 skip.
+ALTER TABLE user_credentials ADD COLUMN IF NOT EXISTS credential_version INTEGER NOT NULL DEFAULT 0;
+
+ALTER TABLE refresh_tokens ADD COLUMN email VARCHAR(255);
+ALTER TABLE refresh_tokens ADD COLUMN credential_version INTEGER;
+
+UPDATE refresh_tokens rt
+SET email              = uc.email,
+    credential_version = uc.credential_version
+FROM users u
+         JOIN user_credentials uc ON uc.id = u.user_credentials_id
+WHERE u.id = rt.user_id
+  AND rt.revoked_at IS NULL
+  AND rt.expires_at > now();
@@ -0,0 +1,25 @@
+-- Append-only log of authentication and token security events.
+
+CREATE TABLE security_events (
+    id          BIGINT GENERATED ALWAYS AS IDENTITY PRIMARY KEY,
+    event_type  VARCHAR(40)  NOT NULL,
+    user_id     BIGINT,
+    subject     VARCHAR(255),
+    source_ip   VARCHAR(45),
+    detail      VARCHAR(255),
+    occurred_at TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    recorded_at TIMESTAMP(6) WITH TIME ZONE NOT NULL DEFAULT now()
+);
+
+CREATE INDEX idx_security_events_occurred ON security_events (occurred_at);
+CREATE INDEX idx_security_events_user ON security_events (user_id, occurred_at) WHERE user_id IS NOT NULL;
+
+CREATE OR REPLACE FUNCTION reject_security_event_change() RETURNS TRIGGER AS $$
+BEGIN
+    RAISE EXCEPTION 'security_events is append-only';
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_security_events_append_only
+    BEFORE UPDATE OR DELETE ON security_events
+    FOR EACH ROW EXECUTE FUNCTION reject_security_event_change();
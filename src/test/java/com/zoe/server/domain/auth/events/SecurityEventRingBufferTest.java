@@ -0,0 +1,79 @@
+package com.zoe.server.domain.auth.events;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SecurityEventRingBufferTest {
+
+    @Test
+    void rejectsOffersOnceFullAndAcceptsAgainAfterPoll() {
+        SecurityEventRingBuffer buffer = new SecurityEventRingBuffer(4);
+
+        for (int i = 0; i < 4; i++) {
+            assertThat(buffer.offer(event(i))).isTrue();
+        }
+
+        assertThat(buffer.offer(event(4))).isFalse();
+        assertThat(buffer.poll().userId()).isEqualTo(0L);
+        assertThat(buffer.offer(event(4))).isTrue();
+        assertThat(buffer.size()).isEqualTo(4);
+    }
+
+    @Test
+    void roundsCapacityUpToAPowerOfTwo() {
+        assertThat(new SecurityEventRingBuffer(1000).capacity()).isEqualTo(1024);
+        assertThat(new SecurityEventRingBuffer(1024).capacity()).isEqualTo(1024);
+    }
+
+    @Test
+    void concurrentProducersAndConsumerLoseAndDuplicateNothing() throws InterruptedException {
+        int producers = 4;
+        int perProducer = 50_000;
+        SecurityEventRingBuffer buffer = new SecurityEventRingBuffer(256);
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        CountDownLatch start = new CountDownLatch(1);
+        for (int p = 0; p < producers; p++) {
+            long base = (long) p * perProducer;
+            executor.submit(() -> {
+                start.await();
+                for (long i = base; i < base + perProducer; i++) {
+                    while (!buffer.offer(event(i))) {
+                        Thread.onSpinWait();
+                    }
+                }
+                return null;
+            });
+        }
+
+        start.countDown();
+        Set<Long> seen = new HashSet<>();
+        List<SecurityEvent> batch = new ArrayList<>();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (seen.size() < producers * perProducer && System.nanoTime() < deadline) {
+            batch.clear();
+            buffer.drainTo(batch, 64);
+            for (SecurityEvent event : batch) {
+                assertThat(seen.add(event.userId())).isTrue();
+            }
+        }
+        executor.shutdownNow();
+
+        assertThat(seen).hasSize(producers * perProducer);
+        assertThat(buffer.poll()).isNull();
+    }
+
+    private static SecurityEvent event(long id) {
+        return new SecurityEvent(SecurityEventType.LOGIN_SUCCEEDED, id, null, null, null, Instant.EPOCH);
+    }
+}
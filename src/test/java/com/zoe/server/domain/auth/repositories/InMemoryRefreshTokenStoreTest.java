@@ -0,0 +1,53 @@
+package com.zoe.server.domain.auth.repositories;
+
+import com.zoe.server.domain.auth.models.RefreshToken;
+import com.zoe.server.domain.auth.models.RefreshTokenUsage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InMemoryRefreshTokenStoreTest extends RefreshTokenStoreContractTest {
+
+    private InMemoryRefreshTokenStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new InMemoryRefreshTokenStore(16, "");
+    }
+
+    @Override
+    protected RefreshTokenStore store() {
+        return store;
+    }
+
+    @Test
+    void readersNeverMissATokenWhileItIsUpdated() {
+        RefreshToken token = store.save(token(11L, "family-q", Duration.ofDays(7)));
+        AtomicBoolean writing = new AtomicBoolean(true);
+        AtomicInteger misses = new AtomicInteger();
+
+        CompletableFuture<Void> reader = CompletableFuture.runAsync(() -> {
+            while (writing.get()) {
+                if (store.findBySelector(token.getSelector()).isEmpty()) {
+                    misses.incrementAndGet();
+                }
+            }
+        });
+        for (int i = 0; i < 20_000; i++) {
+            store.recordUsage(List.of(new RefreshTokenUsage(token.getId(), token.getExpiresAt(), 1, Instant.now())));
+        }
+        writing.set(false);
+        reader.join();
+
+        assertThat(misses).hasValue(0);
+        assertThat(store.findBySelector(token.getSelector()).orElseThrow().getUseCount()).isEqualTo(20_000);
+    }
+}
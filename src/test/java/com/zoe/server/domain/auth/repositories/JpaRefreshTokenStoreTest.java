@@ -0,0 +1,42 @@
+package com.zoe.server.domain.auth.repositories;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+
+@SpringBootTest
+@Transactional
+class JpaRefreshTokenStoreTest extends RefreshTokenStoreContractTest {
+
+    @Autowired
+    private JpaRefreshTokenStore store;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    protected RefreshTokenStore store() {
+        return store;
+    }
+
+    // Partitions are detached outside any transaction, so the tokens have to be committed
+    @Test
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void purgeExpiredRemovesOnlyTokensPastTheCutoff() {
+        LocalDate expiredDay = LocalDate.now(ZoneOffset.UTC).minusDays(2);
+        jdbcTemplate.queryForObject("SELECT create_refresh_token_partition(?)", Boolean.class, Date.valueOf(expiredDay));
+        try {
+            super.purgeExpiredRemovesOnlyTokensPastTheCutoff();
+        } finally {
+            jdbcTemplate.update("DELETE FROM refresh_tokens WHERE family_id IN ('family-l', 'family-m')");
+        }
+    }
+}
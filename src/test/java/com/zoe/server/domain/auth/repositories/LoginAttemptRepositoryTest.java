@@ -0,0 +1,93 @@
+package com.zoe.server.domain.auth.repositories;
+
+import com.zoe.server.domain.auth.dtos.RegisterPatientRequestDto;
+import com.zoe.server.domain.auth.repositories.LoginAttemptRepository.LoginAttemptState;
+import com.zoe.server.domain.auth.services.AuthService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Transactional
+class LoginAttemptRepositoryTest {
+
+    private static final String PASSWORD = "correct-horse-battery";
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private LoginAttemptRepository loginAttemptRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private String email;
+
+    @BeforeEach
+    void registerPatient() {
+        email = "attempts-" + UUID.randomUUID() + "@example.com";
+        authService.registerPatient(new RegisterPatientRequestDto("Login", "Attempts", email, PASSWORD, PASSWORD));
+    }
+
+    @Test
+    void failuresDoNotLiftOrShortenAnExistingLock() {
+        Instant later = Instant.now().plus(1, ChronoUnit.HOURS).truncatedTo(ChronoUnit.MICROS);
+        lock(Timestamp.from(later), 7);
+
+        loginAttemptRepository.updateBatch(List.of(
+                new LoginAttemptState(email, 2, null),
+                new LoginAttemptState(email, 5, Instant.now().plus(15, ChronoUnit.MINUTES))));
+
+        Map<String, Object> row = row();
+        assertThat(row.get("is_locked")).isEqualTo(true);
+        assertThat(((Timestamp) row.get("locked_until")).toInstant()).isEqualTo(later);
+        assertThat(row.get("logging_attempts")).isEqualTo(7);
+    }
+
+    @Test
+    void failuresKeepAnIndefiniteLockIndefinite() {
+        lock(null, 0);
+
+        loginAttemptRepository.updateBatch(List.of(
+                new LoginAttemptState(email, 5, Instant.now().plus(15, ChronoUnit.MINUTES))));
+
+        assertThat(row().get("is_locked")).isEqualTo(true);
+        assertThat(row().get("locked_until")).isNull();
+    }
+
+    @Test
+    void resetClearsAnExpiredLockButKeepsARunningOne() {
+        lock(Timestamp.from(Instant.now().minusSeconds(60)), 5);
+        loginAttemptRepository.updateBatch(List.of(LoginAttemptState.reset(email)));
+        assertThat(row().get("is_locked")).isEqualTo(false);
+        assertThat(row().get("logging_attempts")).isEqualTo(0);
+
+        lock(Timestamp.from(Instant.now().plusSeconds(600)), 5);
+        loginAttemptRepository.updateBatch(List.of(LoginAttemptState.reset(email)));
+        assertThat(row().get("is_locked")).isEqualTo(true);
+        assertThat(row().get("locked_until")).isNotNull();
+    }
+
+    private void lock(Timestamp lockedUntil, int attempts) {
+        jdbcTemplate.update("UPDATE user_credentials SET is_locked = TRUE, locked_until = ?, logging_attempts = ? WHERE email = ?",
+                lockedUntil, attempts, email);
+    }
+
+    private Map<String, Object> row() {
+        return jdbcTemplate.queryForMap(
+                "SELECT is_locked, locked_until, logging_attempts FROM user_credentials WHERE email = ?", email);
+    }
+}
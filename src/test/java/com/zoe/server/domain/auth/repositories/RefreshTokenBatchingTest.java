@@ -0,0 +1,77 @@
+package com.zoe.server.domain.auth.repositories;
+
+import com.zoe.server.domain.auth.models.RefreshToken;
+import com.zoe.server.domain.user.enums.UserRole;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Transactional
+class RefreshTokenBatchingTest {
+
+    private static final int TOKENS = 20;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private JpaRefreshTokenStore store;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void resetStatistics() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void insertsAreSentAsOneBatch() {
+        List<RefreshToken> tokens = new ArrayList<>();
+        for (int i = 0; i < TOKENS; i++) {
+            tokens.add(RefreshTokenStoreContractTest.token(11L, "family-batch", Duration.ofDays(7)));
+        }
+
+        refreshTokenRepository.saveAll(tokens);
+        entityManager.flush();
+
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(TOKENS);
+        // One sequence call for the whole pooled block, one prepared batch INSERT.
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(2);
+    }
+
+    @Test
+    void revokeUserIsASingleStatement() {
+        for (int i = 0; i < TOKENS; i++) {
+            store.save(RefreshTokenStoreContractTest.token(12L, "family-revoke", Duration.ofDays(7)));
+        }
+        entityManager.flush();
+        statistics.clear();
+
+        int revoked = store.revokeUser(12L, UserRole.PATIENT, Instant.now(), "test");
+
+        assertThat(revoked).isEqualTo(TOKENS);
+        assertThat(statistics.getEntityUpdateCount()).isZero();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,223 @@
+package com.zoe.server.domain.auth.repositories;
+
+import com.zoe.server.domain.auth.dtos.TokenStatsDto;
+import com.zoe.server.domain.auth.models.RefreshToken;
+import com.zoe.server.domain.auth.models.RefreshTokenUsage;
+import com.zoe.server.domain.user.enums.UserRole;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Behaviour every {@link RefreshTokenStore} backend must share.
+ */
+abstract class RefreshTokenStoreContractTest {
+
+    protected abstract RefreshTokenStore store();
+
+    @Test
+    void savedTokenCanBeFoundBySelector() {
+        RefreshToken token = store().save(token(1L, "family-a", Duration.ofDays(7)));
+
+        Optional<RefreshToken> found = store().findBySelector(token.getSelector());
+
+        assertThat(found).isPresent();
+        assertThat(found.get().getId()).isEqualTo(token.getId());
+        assertThat(found.get().getUserId()).isEqualTo(1L);
+        assertThat(found.get().isValid()).isTrue();
+    }
+
+    @Test
+    void legacyTokenCanBeFoundByHash() {
+        RefreshToken legacy = token(1L, "family-legacy", Duration.ofDays(7));
+        legacy.setSelector(null);
+        legacy.setVerifierHash(null);
+        legacy.setTokenHash(UUID.randomUUID().toString());
+        store().save(legacy);
+
+        assertThat(store().findByTokenHash(legacy.getTokenHash()))
+                .get()
+                .satisfies(t -> assertThat(t.getId()).isEqualTo(legacy.getId()));
+    }
+
+    @Test
+    void rotateClaimsTheOldTokenExactlyOnce() {
+        RefreshToken old = store().save(token(2L, "family-b", Duration.ofDays(7)));
+        RefreshToken first = token(2L, "family-c", Duration.ofDays(7));
+        RefreshToken second = token(2L, "family-d", Duration.ofDays(7));
+
+        Optional<RefreshToken> claimed = store().rotate(old.getId(), old.getExpiresAt(), first, Instant.now());
+        Optional<RefreshToken> reused = store().rotate(old.getId(), old.getExpiresAt(), second, Instant.now());
+
+        assertThat(claimed).isPresent();
+        assertThat(reused).isEmpty();
+        assertThat(store().findBySelector(old.getSelector())).get().satisfies(t -> {
+            assertThat(t.isRevoked()).isTrue();
+            assertThat(t.getRevokedReason()).isEqualTo(RefreshToken.ROTATED_REASON);
+        });
+        assertThat(store().findBySelector(first.getSelector())).get().satisfies(t -> assertThat(t.isValid()).isTrue());
+        assertThat(store().findBySelector(second.getSelector())).isEmpty();
+    }
+
+    @Test
+    void rotateKeepsTheReplacementInTheSameFamily() {
+        RefreshToken old = store().save(token(2L, "family-i", Duration.ofDays(7)));
+
+        RefreshToken replacement = store().rotate(old.getId(), old.getExpiresAt(), token(2L, "family-j", Duration.ofDays(7)), Instant.now()).orElseThrow();
+
+        assertThat(replacement.getId()).isNotNull();
+        assertThat(store().findBySelector(replacement.getSelector()).orElseThrow().getFamilyId()).isEqualTo("family-i");
+    }
+
+    @Test
+    void rotateStoresTheReplacementsIdentity() {
+        RefreshToken old = store().save(token(2L, "family-r", Duration.ofDays(7)));
+        RefreshToken next = token(2L, "family-rs", Duration.ofDays(7));
+        next.setEmail("rotated@example.com");
+        next.setCredentialVersion(3);
+
+        RefreshToken replacement = store().rotate(old.getId(), old.getExpiresAt(), next, Instant.now()).orElseThrow();
+
+        assertThat(store().findBySelector(replacement.getSelector())).get().satisfies(t -> {
+            assertThat(t.getEmail()).isEqualTo("rotated@example.com");
+            assertThat(t.getCredentialVersion()).isEqualTo(3);
+        });
+    }
+
+    @Test
+    void rotateRejectsExpiredToken() {
+        RefreshToken expired = store().save(token(3L, "family-e", Duration.ofSeconds(-1)));
+
+        Optional<RefreshToken> claimed = store().rotate(expired.getId(), expired.getExpiresAt(), token(3L, "family-f", Duration.ofDays(7)), Instant.now());
+
+        assertThat(claimed).isEmpty();
+    }
+
+    @Test
+    void revokeFamilyRevokesEveryMember() {
+        RefreshToken first = store().save(token(4L, "family-g", Duration.ofDays(7)));
+        RefreshToken second = store().save(token(4L, "family-g", Duration.ofDays(7)));
+        RefreshToken other = store().save(token(4L, "family-h", Duration.ofDays(7)));
+
+        int revoked = store().revokeFamily("family-g", Instant.now(), "test");
+
+        assertThat(revoked).isEqualTo(2);
+        assertThat(store().findBySelector(first.getSelector()).orElseThrow().isRevoked()).isTrue();
+        assertThat(store().findBySelector(second.getSelector()).orElseThrow().isRevoked()).isTrue();
+        assertThat(store().findBySelector(other.getSelector()).orElseThrow().isRevoked()).isFalse();
+    }
+
+    @Test
+    void revokeUserLeavesNoValidTokens() {
+        store().save(token(5L, "family-i", Duration.ofDays(7)));
+        store().save(token(5L, "family-j", Duration.ofDays(7)));
+
+        store().revokeUser(5L, UserRole.PATIENT, Instant.now(), "test");
+
+        assertThat(store().findValidTokensByUser(5L, UserRole.PATIENT, Instant.now())).isEmpty();
+    }
+
+    @Test
+    void markFamilyAsCompromisedFlagsMembers() {
+        RefreshToken token = store().save(token(6L, "family-k", Duration.ofDays(7)));
+
+        store().markFamilyAsCompromised("family-k", Instant.now());
+
+        RefreshToken found = store().findBySelector(token.getSelector()).orElseThrow();
+        assertThat(found.isCompromised()).isTrue();
+        assertThat(found.isValid()).isFalse();
+    }
+
+    @Test
+    void purgeExpiredRemovesOnlyTokensPastTheCutoff() {
+        RefreshToken expired = store().save(token(7L, "family-l", Duration.ofDays(-2)));
+        RefreshToken live = store().save(token(7L, "family-m", Duration.ofDays(7)));
+
+        int purged = store().purgeExpired(Instant.now().minus(Duration.ofDays(1)));
+
+        assertThat(purged).isNotNegative();
+        assertThat(store().findBySelector(expired.getSelector())).isEmpty();
+        assertThat(store().findBySelector(live.getSelector())).isPresent();
+    }
+
+    @Test
+    void findValidTokensByUserSkipsRevokedAndExpired() {
+        RefreshToken valid = store().save(token(8L, "family-n", Duration.ofDays(7)));
+        store().save(token(8L, "family-o", Duration.ofSeconds(-1)));
+        RefreshToken revoked = token(8L, "family-p", Duration.ofDays(7));
+        revoked.revoke("test");
+        store().save(revoked);
+
+        assertThat(store().findValidTokensByUser(8L, UserRole.PATIENT, Instant.now()))
+                .extracting(RefreshToken::getSelector)
+                .containsExactly(valid.getSelector());
+        assertThat(store().findValidTokensByUser(8L, UserRole.PATIENT, Instant.now().plus(Duration.ofDays(8)))).isEmpty();
+    }
+
+    @Test
+    void revokeExcessTokensKeepsOnlyTheNewest() {
+        RefreshToken oldest = store().save(token(10L, "family-v", Duration.ofDays(7)));
+        RefreshToken older = store().save(token(10L, "family-w", Duration.ofDays(7)));
+        RefreshToken newer = store().save(token(10L, "family-x", Duration.ofDays(7)));
+        RefreshToken newest = store().save(token(10L, "family-y", Duration.ofDays(7)));
+
+        int revoked = store().revokeExcessTokens(10L, UserRole.PATIENT, 2, Instant.now(), "limit");
+
+        assertThat(revoked).isEqualTo(2);
+        assertThat(store().findValidTokensByUser(10L, UserRole.PATIENT, Instant.now()))
+                .extracting(RefreshToken::getSelector)
+                .containsExactlyInAnyOrder(newer.getSelector(), newest.getSelector());
+        assertThat(store().findBySelector(oldest.getSelector()).orElseThrow().isRevoked()).isTrue();
+        assertThat(store().findBySelector(older.getSelector()).orElseThrow().isRevoked()).isTrue();
+    }
+
+    @Test
+    void recordUsageAccumulatesUsesAndKeepsTheLatestTime() {
+        RefreshToken token = store().save(token(13L, "family-z", Duration.ofDays(7)));
+        Instant earlier = Instant.now().minusSeconds(60).truncatedTo(ChronoUnit.MILLIS);
+        Instant later = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+
+        store().recordUsage(List.of(new RefreshTokenUsage(token.getId(), token.getExpiresAt(), 3, later)));
+        store().recordUsage(List.of(new RefreshTokenUsage(token.getId(), token.getExpiresAt(), 2, earlier)));
+
+        RefreshToken used = store().findBySelector(token.getSelector()).orElseThrow();
+        assertThat(used.getUseCount()).isEqualTo(5);
+        assertThat(used.getLastUsedAt()).isEqualTo(later);
+    }
+
+    @Test
+    void countTokensPlacesEveryTokenInExactlyOneState() {
+        TokenStatsDto before = store().countTokens(Instant.now());
+        store().save(token(9L, "family-s", Duration.ofDays(7)));
+        RefreshToken revoked = store().save(token(9L, "family-t", Duration.ofDays(7)));
+        store().revokeFamily(revoked.getFamilyId(), Instant.now(), "test");
+        store().save(token(9L, "family-u", Duration.ofSeconds(-1)));
+
+        TokenStatsDto after = store().countTokens(Instant.now());
+
+        assertThat(after.getTotalTokens() - before.getTotalTokens()).isEqualTo(3);
+        assertThat(after.getActiveTokens() - before.getActiveTokens()).isEqualTo(1);
+        assertThat(after.getRevokedTokens() - before.getRevokedTokens()).isEqualTo(1);
+        assertThat(after.getExpiredTokens() - before.getExpiredTokens()).isEqualTo(1);
+        assertThat(after.getActiveTokens() + after.getExpiredTokens() + after.getRevokedTokens())
+                .isEqualTo(after.getTotalTokens());
+    }
+
+    protected static RefreshToken token(Long userId, String familyId, Duration expiresIn) {
+        RefreshToken token = new RefreshToken();
+        token.setUserId(userId);
+        token.setUserRole(UserRole.PATIENT);
+        token.setSelector(UUID.randomUUID().toString().replace("-", "").substring(0, 16));
+        token.setVerifierHash(new byte[32]);
+        token.setFamilyId(familyId);
+        token.setExpiresAt(Instant.now().plus(expiresIn).truncatedTo(ChronoUnit.MICROS));
+        return token;
+    }
+}
@@ -0,0 +1,211 @@
+package com.zoe.server.domain.auth.services;
+
+import com.zoe.server.domain.auth.dtos.AuthRequestDto;
+import com.zoe.server.domain.auth.dtos.AuthResponseDto;
+import com.zoe.server.domain.auth.dtos.RegisterPatientRequestDto;
+import com.zoe.server.domain.auth.exceptions.InvalidRefreshTokenException;
+import com.zoe.server.domain.user.models.User;
+import com.zoe.server.domain.user.models.UserCredentials;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BiFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        // Usage is flushed by the tests themselves, inside their transaction
+        "refresh-token.usage.flush-interval=PT1H"
+})
+@Transactional
+@Import(AuthServiceRefreshTest.JdbcStatementCounter.class)
+class AuthServiceRefreshTest {
+
+    private static final String PASSWORD = "correct-horse-battery";
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private RefreshTokenUsageTracker refreshTokenUsageTracker;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private JdbcStatementCounter statementCounter;
+
+    private Statistics statistics;
+    private String email;
+    private String refreshToken;
+
+    @BeforeEach
+    void loginPatient() {
+        email = "refresh-" + UUID.randomUUID() + "@example.com";
+        authService.registerPatient(new RegisterPatientRequestDto("Refresh", "Test", email, PASSWORD, PASSWORD));
+        refreshToken = authService.login(new AuthRequestDto(email, PASSWORD)).getRefreshToken();
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        statementCounter.start();
+    }
+
+    @Test
+    void refreshIssuesTokensForTheCurrentCredentials() {
+        AuthResponseDto response = authService.refreshToken(refreshToken);
+        List<String> statements = statementCounter.stop();
+
+        assertThat(jwtService.extractEmail(response.getAccessToken())).isEqualTo(email);
+        assertThat(response.getRefreshToken()).isNotEqualTo(refreshToken);
+        // The token joined with its account, and the statement that claims the old token and inserts the new one
+        assertThat(statements).hasSize(2);
+        assertThat(statements.get(1)).contains("WITH claimed AS");
+        assertThat(statistics.getEntityStatistics(User.class.getName()).getLoadCount()).isZero();
+        assertThat(statistics.getEntityStatistics(UserCredentials.class.getName()).getLoadCount()).isZero();
+    }
+
+    /**
+     * Records the SQL of every statement prepared on the test thread, at the JDBC
+     * level, so statements issued through JdbcTemplate count as well as Hibernate's.
+     */
+    @TestConfiguration
+    static class JdbcStatementCounter implements BeanPostProcessor {
+
+        private final List<String> statements = new CopyOnWriteArrayList<>();
+        private volatile Thread recording;
+
+        void start() {
+            statements.clear();
+            recording = Thread.currentThread();
+        }
+
+        List<String> stop() {
+            recording = null;
+            return List.copyOf(statements);
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (bean instanceof DataSource dataSource) {
+                return proxy(DataSource.class, dataSource, (method, result) ->
+                        method.getName().equals("getConnection") ? proxy(Connection.class, (Connection) result, null) : result);
+            }
+            return bean;
+        }
+
+        private <T> T proxy(Class<T> type, T target, BiFunction<Method, Object, Object> wrapResult) {
+            return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+                if (type == Connection.class && recording == Thread.currentThread()
+                        && (method.getName().equals("prepareStatement") || method.getName().equals("prepareCall"))) {
+                    statements.add((String) args[0]);
+                }
+                Object result;
+                try {
+                    result = method.invoke(target, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+                return wrapResult == null ? result : wrapResult.apply(method, result);
+            }));
+        }
+    }
+
+    @Test
+    void refreshRejectsTokensIssuedBeforeACredentialChange() {
+        AuthResponseDto rotated = authService.refreshToken(refreshToken);
+        jdbcTemplate.update("UPDATE user_credentials SET credential_version = credential_version + 1 WHERE email = ?", email);
+
+        assertThatThrownBy(() -> authService.refreshToken(rotated.getRefreshToken()))
+                .isInstanceOf(InvalidRefreshTokenException.class)
+                .extracting(e -> ((InvalidRefreshTokenException) e).getReason())
+                .isEqualTo(InvalidRefreshTokenException.Reason.REVOKED);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM refresh_tokens WHERE email = ? AND revoked_at IS NULL", Integer.class, email))
+                .isZero();
+    }
+
+    @Test
+    void refreshRejectsADeactivatedAccount() {
+        jdbcTemplate.update("UPDATE user_credentials SET is_active = FALSE WHERE email = ?", email);
+
+        assertThatThrownBy(() -> authService.refreshToken(refreshToken))
+                .isInstanceOf(InvalidRefreshTokenException.class)
+                .extracting(e -> ((InvalidRefreshTokenException) e).getReason())
+                .isEqualTo(InvalidRefreshTokenException.Reason.DISABLED);
+    }
+
+    @Test
+    void refreshRejectsALockedAccountButKeepsTheTokenForAfterTheLock() {
+        jdbcTemplate.update("UPDATE user_credentials SET is_locked = TRUE, locked_until = ? WHERE email = ?",
+                Timestamp.from(Instant.now().plusSeconds(600)), email);
+
+        assertThatThrownBy(() -> authService.refreshToken(refreshToken))
+                .isInstanceOf(InvalidRefreshTokenException.class)
+                .extracting(e -> ((InvalidRefreshTokenException) e).getReason())
+                .isEqualTo(InvalidRefreshTokenException.Reason.LOCKED);
+
+        jdbcTemplate.update("UPDATE user_credentials SET locked_until = ? WHERE email = ?",
+                Timestamp.from(Instant.now().minusSeconds(1)), email);
+        assertThat(authService.refreshToken(refreshToken).getRefreshToken()).isNotEqualTo(refreshToken);
+    }
+
+    @Test
+    void refreshRecordsAUseOfThePresentedToken() {
+        authService.refreshToken(refreshToken);
+        refreshTokenUsageTracker.flush();
+
+        Integer useCount = jdbcTemplate.queryForObject(
+                "SELECT use_count FROM refresh_tokens WHERE email = ? AND revoked_reason = 'Token rotated'",
+                Integer.class, email);
+        assertThat(useCount).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM refresh_tokens WHERE email = ? AND last_used_at IS NOT NULL",
+                Integer.class, email)).isEqualTo(1);
+    }
+
+    @Test
+    void rotatedTokenCannotBeUsedAgain() {
+        AuthResponseDto rotated = authService.refreshToken(refreshToken);
+
+        assertThatThrownBy(() -> authService.refreshToken(refreshToken))
+                .isInstanceOf(InvalidRefreshTokenException.class)
+                .extracting(e -> ((InvalidRefreshTokenException) e).getReason())
+                .isEqualTo(InvalidRefreshTokenException.Reason.COMPROMISED);
+        assertThatThrownBy(() -> authService.refreshToken(rotated.getRefreshToken()))
+                .isInstanceOf(InvalidRefreshTokenException.class);
+    }
+}
@@ -0,0 +1,49 @@
+package com.zoe.server.domain.auth.services;
+
+import com.zoe.server.domain.auth.dtos.RegisterPatientRequestDto;
+import com.zoe.server.domain.auth.exceptions.EmailAlreadyRegisteredException;
+import com.zoe.server.domain.auth.metrics.AuthMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class AuthServiceRegistrationTest {
+
+    private static final String PASSWORD = "correct-horse-battery";
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void rejectsAnEmailThatIsAlreadyRegisteredWithAConflict() {
+        String email = "register-" + UUID.randomUUID() + "@example.com";
+        authService.registerPatient(new RegisterPatientRequestDto("First", "Patient", email, PASSWORD, PASSWORD));
+
+        assertThatThrownBy(() -> authService.registerPatient(
+                new RegisterPatientRequestDto("Second", "Patient", email, PASSWORD, PASSWORD)))
+                .isInstanceOf(EmailAlreadyRegisteredException.class);
+    }
+
+    @Test
+    void recordsConnectionHoldTimePerRole() {
+        String email = "register-" + UUID.randomUUID() + "@example.com";
+        authService.registerPatient(new RegisterPatientRequestDto("Hold", "Time", email, PASSWORD, PASSWORD));
+
+        Timer hold = meterRegistry.find(AuthMetrics.REGISTER_CONNECTION_HOLD)
+                .tags("role", "patient", "outcome", "success")
+                .timer();
+        assertThat(hold).isNotNull();
+        assertThat(hold.count()).isPositive();
+    }
+}
@@ -0,0 +1,122 @@
+package com.zoe.server.domain.auth.services;
+
+import com.zoe.server.domain.auth.repositories.JwtSigningKeyStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JwtKeyRingTest {
+
+    private static final String SECRET = "key-ring-test-secret-0123456789-abcdefghij";
+
+    private SharedKeyStore keyStore;
+
+    @BeforeEach
+    void setUp() {
+        keyStore = new SharedKeyStore();
+    }
+
+    @Test
+    void nodesSharingTheStoreSignWithTheSameKey() {
+        JwtKeyRing first = ring(SECRET);
+        JwtKeyRing second = ring(SECRET);
+
+        assertThat(second.currentSigningKey().getKid()).isEqualTo(first.currentSigningKey().getKid());
+        assertThat(second.verificationKey(first.currentSigningKey().getKid()))
+                .isEqualTo(first.currentSigningKey().getKeyPair().getPublic());
+        assertThat(keyStore.findAll()).hasSize(2);
+    }
+
+    @Test
+    void keysSurviveARestart() {
+        String kid = ring(SECRET).currentSigningKey().getKid();
+
+        JwtKeyRing restarted = ring(SECRET);
+
+        assertThat(restarted.currentSigningKey().getKid()).isEqualTo(kid);
+        assertThat(restarted.currentSigningKey().getKeyPair().getPrivate()).isNotNull();
+    }
+
+    @Test
+    void otherNodesFollowARotationThroughTheStore() {
+        JwtKeyRing rotating = ring(SECRET, Duration.ZERO);
+        JwtKeyRing other = ring(SECRET, Duration.ZERO);
+        String before = rotating.currentSigningKey().getKid();
+
+        rotating.rotate();
+        String after = rotating.currentSigningKey().getKid();
+
+        assertThat(after).isNotEqualTo(before);
+        assertThat(other.verificationKey(after)).isNotNull();
+        assertThat(other.verificationKey(before)).isNotNull();
+        other.reload();
+        assertThat(other.currentSigningKey().getKid()).isEqualTo(after);
+    }
+
+    @Test
+    void rotationRunsOncePerIntervalAcrossNodes() {
+        JwtKeyRing first = ring(SECRET, Duration.ofHours(24));
+        String kid = first.currentSigningKey().getKid();
+
+        first.rotate();
+        ring(SECRET, Duration.ofHours(24)).rotate();
+        first.reload();
+
+        assertThat(first.currentSigningKey().getKid()).isEqualTo(kid);
+        assertThat(keyStore.findAll()).hasSize(2);
+    }
+
+    @Test
+    void refusesKeysStoredWithADifferentSecret() {
+        ring(SECRET);
+
+        assertThatThrownBy(() -> ring("another-secret-that-is-long-enough-0123456789"))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("jwt.key-encryption-secret");
+    }
+
+    private JwtKeyRing ring(String secret) {
+        return ring(secret, Duration.ofHours(24));
+    }
+
+    private JwtKeyRing ring(String secret, Duration rotationInterval) {
+        JwtKeyRing ring = new JwtKeyRing(keyStore, "ES256", 900_000L, Duration.ofMinutes(1),
+                rotationInterval, Duration.ZERO, secret);
+        ring.init();
+        return ring;
+    }
+
+    private static final class SharedKeyStore implements JwtSigningKeyStore {
+
+        private final Map<String, StoredSigningKey> keys = new LinkedHashMap<>();
+
+        @Override
+        public synchronized List<StoredSigningKey> findAll() {
+            return new ArrayList<>(keys.values());
+        }
+
+        @Override
+        public synchronized void save(StoredSigningKey key) {
+            keys.put(key.kid(), key);
+        }
+
+        @Override
+        public synchronized void delete(String kid) {
+            keys.remove(kid);
+        }
+
+        @Override
+        public synchronized <T> T exclusively(Supplier<T> work) {
+            return work.get();
+        }
+    }
+}
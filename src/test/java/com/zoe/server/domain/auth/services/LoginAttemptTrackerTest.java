@@ -0,0 +1,103 @@
+package com.zoe.server.domain.auth.services;
+
+import com.zoe.server.domain.auth.exceptions.LoginThrottledException;
+import com.zoe.server.domain.auth.repositories.LoginAttemptRepository;
+import com.zoe.server.domain.auth.repositories.LoginAttemptRepository.LoginAttemptState;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.scheduling.TaskScheduler;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class LoginAttemptTrackerTest {
+
+    private static final String EMAIL = "patient@example.com";
+    private static final String IP = "203.0.113.7";
+    private static final long MINUTE = 60_000L;
+
+    private LoginAttemptRepository repository;
+    private LoginAttemptTracker tracker;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(LoginAttemptRepository.class);
+        tracker = new LoginAttemptTracker(repository, mock(TaskScheduler.class), 3, 10,
+                Duration.ofMinutes(15), Duration.ofMinutes(15), 1000, 500);
+    }
+
+    @Test
+    void locksTheAccountOnceTheThresholdIsReachedInsideTheWindow() {
+        long now = 0;
+
+        assertThat(tracker.recordFailure(EMAIL, IP, now)).isFalse();
+        assertThat(tracker.recordFailure(EMAIL, IP, now + MINUTE)).isFalse();
+        assertThat(tracker.recordFailure(EMAIL, IP, now + 2 * MINUTE)).isTrue();
+
+        assertThatThrownBy(() -> tracker.checkAllowed(EMAIL, "198.51.100.1", now + 3 * MINUTE))
+                .isInstanceOf(LoginThrottledException.class)
+                .extracting(e -> ((LoginThrottledException) e).getRetryAfterSeconds())
+                .isEqualTo(14 * 60L);
+        assertThatCode(() -> tracker.checkAllowed(EMAIL, IP, now + 18 * MINUTE)).doesNotThrowAnyException();
+    }
+
+    @Test
+    void failuresOlderThanTheWindowDoNotCount() {
+        tracker.recordFailure(EMAIL, IP, 0);
+        tracker.recordFailure(EMAIL, IP, MINUTE);
+
+        assertThat(tracker.recordFailure(EMAIL, IP, 16 * MINUTE)).isFalse();
+        assertThat(tracker.recordFailure(EMAIL, IP, 17 * MINUTE)).isFalse();
+        assertThat(tracker.recordFailure(EMAIL, IP, 18 * MINUTE)).isTrue();
+    }
+
+    @Test
+    void successClearsTheAccountFailures() {
+        tracker.recordFailure(EMAIL, IP, 0);
+        tracker.recordFailure(EMAIL, IP, 1);
+        tracker.recordSuccess(EMAIL);
+
+        assertThat(tracker.recordFailure(EMAIL, IP, 2)).isFalse();
+    }
+
+    @Test
+    void throttlesTheSourceIpWithoutLockingTheAccountsItTried() {
+        for (int i = 0; i < 10; i++) {
+            tracker.recordFailure("user" + i + "@example.com", IP, i);
+        }
+
+        assertThatThrownBy(() -> tracker.checkAllowed("other@example.com", IP, 20))
+                .isInstanceOf(LoginThrottledException.class);
+        assertThatCode(() -> tracker.checkAllowed("user0@example.com", "198.51.100.1", 20))
+                .doesNotThrowAnyException();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void persistsOnlyTheLatestStatePerAccountOnFlush() {
+        tracker.flush();
+        verify(repository, never()).updateBatch(anyList());
+
+        tracker.recordFailure(EMAIL, IP, 0);
+        tracker.recordFailure(EMAIL, IP, 1);
+        tracker.recordFailure(EMAIL, IP, 2);
+        tracker.flush();
+
+        ArgumentCaptor<List<LoginAttemptState>> batch = ArgumentCaptor.forClass(List.class);
+        verify(repository).updateBatch(batch.capture());
+        assertThat(batch.getValue()).singleElement().satisfies(state -> {
+            assertThat(state.email()).isEqualTo(EMAIL);
+            assertThat(state.failedAttempts()).isEqualTo(3);
+            assertThat(state.lockedUntil()).isNotNull();
+        });
+    }
+}
@@ -0,0 +1,96 @@
+package com.zoe.server.domain.patient.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zoe.server.domain.patient.enums.PatientImportFormat;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PatientImportReaderTest {
+
+    private static final int MAX_LINE_LENGTH = 200;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void readsCsvByHeaderNameWithQuotedFields() {
+        List<PatientImportReader.Row> rows = read(PatientImportFormat.CSV, """
+                email,Password,firstName,lastName
+
+                ana@example.com,"pa,ss""word",Ana,"Souza"
+                """);
+
+        assertThat(rows).singleElement().satisfies(row -> {
+            assertThat(row.number()).isEqualTo(1);
+            assertThat(row.error()).isNull();
+            assertThat(row.request().getEmail()).isEqualTo("ana@example.com");
+            assertThat(row.request().getPassword()).isEqualTo("pa,ss\"word");
+            assertThat(row.request().getConfirmPassword()).isEqualTo(row.request().getPassword());
+            assertThat(row.request().getLastName()).isEqualTo("Souza");
+        });
+    }
+
+    @Test
+    void keepsQuotedFieldsAndPasswordsVerbatim() {
+        List<PatientImportReader.Row> rows = read(PatientImportFormat.CSV, """
+                email, password ,firstName,lastName
+                 ana@example.com , secret123 ,  " Ana " ,Souza\r
+                """);
+
+        assertThat(rows).singleElement().satisfies(row -> {
+            assertThat(row.request().getEmail()).isEqualTo("ana@example.com");
+            assertThat(row.request().getPassword()).isEqualTo(" secret123 ");
+            assertThat(row.request().getFirstName()).isEqualTo(" Ana ");
+            assertThat(row.request().getLastName()).isEqualTo("Souza");
+        });
+    }
+
+    @Test
+    void reportsOverlongLinesAsInvalidRowsWithoutReadingThem() {
+        String longName = "a".repeat(MAX_LINE_LENGTH);
+        List<PatientImportReader.Row> rows = read(PatientImportFormat.CSV,
+                "email,password,firstName,lastName\n"
+                        + "ana@example.com,secret123," + longName + ",Souza\n"
+                        + "bia@example.com,secret123,Bia,Lima\n");
+
+        assertThat(rows).extracting(PatientImportReader.Row::number).containsExactly(1, 2);
+        assertThat(rows.get(0).request()).isNull();
+        assertThat(rows.get(0).error()).contains("line 2");
+        assertThat(rows.get(1).request().getEmail()).isEqualTo("bia@example.com");
+    }
+
+    @Test
+    void rejectsCsvWithoutRequiredColumns() {
+        assertThatThrownBy(() -> read(PatientImportFormat.CSV, "email,firstName\nana@example.com,Ana\n"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("lastname");
+    }
+
+    @Test
+    void reportsMalformedNdjsonLinesWithoutStopping() {
+        List<PatientImportReader.Row> rows = read(PatientImportFormat.NDJSON, """
+                {"firstName":"Ana","lastName":"Souza","email":"ana@example.com","password":"secret123","confirmPassword":"secret123"}
+                {"firstName":
+                {"firstName":"Bia","lastName":"Lima","email":"bia@example.com","password":"secret123","confirmPassword":"secret123"}
+                """);
+
+        assertThat(rows).extracting(PatientImportReader.Row::number).containsExactly(1, 2, 3);
+        assertThat(rows.get(1).request()).isNull();
+        assertThat(rows.get(1).error()).contains("line 2");
+        assertThat(rows.get(2).request().getEmail()).isEqualTo("bia@example.com");
+    }
+
+    private List<PatientImportReader.Row> read(PatientImportFormat format, String input) {
+        PatientImportReader reader = new PatientImportReader(
+                new BufferedReader(new StringReader(input)), format, objectMapper, MAX_LINE_LENGTH);
+        List<PatientImportReader.Row> rows = new ArrayList<>();
+        reader.forEachRemaining(rows::add);
+        return rows;
+    }
+}
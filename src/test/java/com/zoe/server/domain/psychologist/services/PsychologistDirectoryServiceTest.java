@@ -0,0 +1,99 @@
+package com.zoe.server.domain.psychologist.services;
+
+import com.zoe.server.domain.psychologist.dtos.PsychologistSearchCriteria;
+import com.zoe.server.domain.psychologist.dtos.PsychologistSearchResponseDto;
+import com.zoe.server.domain.psychologist.dtos.PsychologistSummaryDto;
+import com.zoe.server.domain.psychologist.models.Psychologist;
+import com.zoe.server.domain.user.enums.UserRole;
+import com.zoe.server.domain.user.models.User;
+import com.zoe.server.domain.user.models.UserCredentials;
+import com.zoe.server.domain.user.repositories.UserRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Transactional
+class PsychologistDirectoryServiceTest {
+
+    @Autowired
+    private PsychologistDirectoryService directoryService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private String city;
+
+    @BeforeEach
+    void createPsychologists() {
+        city = "Directory " + UUID.randomUUID();
+        for (int i = 0; i < 5; i++) {
+            userRepository.save(psychologist(city, "ZZ", "0100" + i + "-000", true));
+        }
+        userRepository.save(psychologist(city, "ZZ", "01009-000", false));
+        userRepository.save(psychologist(city, "YY", "01008-000", true));
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void pagesThroughActivePsychologistsWithoutOverlap() {
+        List<PsychologistSummaryDto> seen = new ArrayList<>();
+        Long after = null;
+        int pages = 0;
+        do {
+            PsychologistSearchResponseDto page = directoryService.search(
+                    PsychologistSearchCriteria.of(" zz ", city.toUpperCase(), null, after, 2));
+            seen.addAll(page.getItems());
+            after = page.getNextCursor();
+            pages++;
+        } while (after != null);
+
+        assertThat(pages).isEqualTo(3);
+        assertThat(seen).hasSize(5)
+                .extracting(PsychologistSummaryDto::getId)
+                .isSorted()
+                .doesNotHaveDuplicates();
+        assertThat(seen).allSatisfy(p -> assertThat(p.getState()).isEqualTo("ZZ"));
+    }
+
+    @Test
+    void filtersByZipPrefixAndPartialCity() {
+        PsychologistSearchResponseDto page = directoryService.search(
+                PsychologistSearchCriteria.of(null, city.substring(10), "01003", null, 20));
+
+        assertThat(page.getItems()).singleElement()
+                .satisfies(p -> assertThat(p.getZipCode()).isEqualTo("01003-000"));
+        assertThat(page.getNextCursor()).isNull();
+    }
+
+    private static User psychologist(String city, String state, String zipCode, boolean active) {
+        UserCredentials credentials = new UserCredentials();
+        credentials.setEmail("directory-" + UUID.randomUUID() + "@example.com");
+        credentials.setPasswordHash("{noop}unused");
+        credentials.setUserRole(UserRole.PSYCHOLOGIST);
+        credentials.setActive(active);
+        Psychologist psychologist = new Psychologist();
+        psychologist.setCrpNumber("06/" + zipCode.substring(0, 5) + "0");
+        psychologist.setCity(city);
+        psychologist.setState(state);
+        psychologist.setZipCode(zipCode);
+        User user = new User();
+        user.setUserCredentials(credentials);
+        user.setPsychologist(psychologist);
+        psychologist.setUser(user);
+        return user;
+    }
+}
@@ -0,0 +1,91 @@
+package com.zoe.server.domain.psychologist.services;
+
+import com.zoe.server.domain.psychologist.dtos.PsychologistSuggestionDto;
+import com.zoe.server.domain.psychologist.events.PsychologistChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class PsychologistSuggestIndexTest {
+
+    private PsychologistSuggestIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new PsychologistSuggestIndex(new JdbcTemplate(mock(DataSource.class)),
+                mock(PlatformTransactionManager.class), 1000, Duration.ofMinutes(1));
+        index.onPsychologistChanged(saved(1L, "06/123456", "São Paulo", "SP"));
+        index.onPsychologistChanged(saved(2L, "06/123999", "Santos", "SP"));
+        index.onPsychologistChanged(saved(3L, "08/555000", "Curitiba", "PR"));
+    }
+
+    @Test
+    void matchesCrpPrefixesWithOrWithoutTheSlash() {
+        assertThat(index.suggest("06/123", 10)).extracting(PsychologistSuggestionDto::getId).containsExactly(1L, 2L);
+        assertThat(index.suggest("061239", 10)).extracting(PsychologistSuggestionDto::getId).containsExactly(2L);
+        assertThat(index.suggest("07", 10)).isEmpty();
+    }
+
+    @Test
+    void matchesCityPrefixesIgnoringCaseAndAccents() {
+        assertThat(index.suggest("sao p", 10)).extracting(PsychologistSuggestionDto::getId).containsExactly(1L);
+        assertThat(index.suggest("SAN", 10)).extracting(PsychologistSuggestionDto::getId).containsExactly(2L);
+        assertThat(index.suggest("s", 1)).hasSize(1);
+    }
+
+    @Test
+    void followsUpdatesAndDeletes() {
+        index.onPsychologistChanged(saved(2L, "06/123999", "Campinas", "SP"));
+        index.onPsychologistChanged(new PsychologistChangedEvent(3L, null, null, null, true));
+
+        assertThat(index.suggest("san", 10)).isEmpty();
+        assertThat(index.suggest("camp", 10)).extracting(PsychologistSuggestionDto::getCity).containsExactly("Campinas");
+        assertThat(index.suggest("08", 10)).isEmpty();
+        assertThat(index.size()).isEqualTo(2);
+    }
+
+    @Test
+    void deltaReloadDropsDeactivatedAccountsUntilTheyAreReactivated() throws SQLException {
+        index.applyChanges(changedRows(new Object[]{2L, "06/123999", "Santos", "SP", false},
+                new Object[]{4L, "06/123400", "Sorocaba", "SP", true}));
+
+        assertThat(index.suggest("06/1234", 10)).extracting(PsychologistSuggestionDto::getId).containsExactly(4L, 1L);
+        assertThat(index.suggest("san", 10)).isEmpty();
+
+        // A save of the deactivated psychologist on this node does not bring it back
+        index.onPsychologistChanged(saved(2L, "06/123999", "Santos", "SP"));
+        assertThat(index.suggest("san", 10)).isEmpty();
+
+        index.applyChanges(changedRows(new Object[]{2L, "06/123999", "Santos", "SP", true}));
+        assertThat(index.suggest("san", 10)).extracting(PsychologistSuggestionDto::getId).containsExactly(2L);
+    }
+
+    private static ResultSet changedRows(Object[]... rows) throws SQLException {
+        ResultSet rs = mock(ResultSet.class);
+        int[] current = {-1};
+        when(rs.next()).thenAnswer(invocation -> ++current[0] < rows.length);
+        when(rs.getLong("id")).thenAnswer(invocation -> rows[current[0]][0]);
+        when(rs.getString("crp_number")).thenAnswer(invocation -> rows[current[0]][1]);
+        when(rs.getString("city")).thenAnswer(invocation -> rows[current[0]][2]);
+        when(rs.getString("state")).thenAnswer(invocation -> rows[current[0]][3]);
+        when(rs.getBoolean("is_active")).thenAnswer(invocation -> rows[current[0]][4]);
+        when(rs.getTimestamp("updated_at")).thenReturn(Timestamp.from(Instant.now()));
+        return rs;
+    }
+
+    private static PsychologistChangedEvent saved(Long id, String crpNumber, String city, String state) {
+        return new PsychologistChangedEvent(id, crpNumber, city, state, false);
+    }
+}
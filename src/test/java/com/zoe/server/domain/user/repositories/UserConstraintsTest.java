@@ -0,0 +1,44 @@
+package com.zoe.server.domain.user.repositories;
+
+import org.hibernate.exception.ConstraintViolationException;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.sql.SQLException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UserConstraintsTest {
+
+    @Test
+    void recognisesTheNamedEmailConstraint() {
+        assertThat(UserConstraints.violatesUniqueEmail(violation(
+                "duplicate key value violates unique constraint \"uk_user_credentials_email\"",
+                "23505", UserConstraints.EMAIL_UNIQUE))).isTrue();
+    }
+
+    @Test
+    void recognisesAGeneratedEmailConstraintByItsColumn() {
+        assertThat(UserConstraints.violatesUniqueEmail(violation(
+                "ERROR: duplicate key value violates unique constraint \"ukhy1r9lx2t6la1uqw0c2h1tcxm\"\n"
+                        + "  Detail: Key (email)=(patient@example.com) already exists.",
+                "23505", "ukhy1r9lx2t6la1uqw0c2h1tcxm"))).isTrue();
+    }
+
+    @Test
+    void ignoresOtherConstraints() {
+        assertThat(UserConstraints.violatesUniqueEmail(violation(
+                "ERROR: duplicate key value violates unique constraint \"uk_users_user_credentials\"\n"
+                        + "  Detail: Key (user_credentials_id)=(7) already exists.",
+                "23505", "uk_users_user_credentials"))).isFalse();
+        assertThat(UserConstraints.violatesUniqueEmail(violation(
+                "ERROR: null value in column \"email\" violates not-null constraint",
+                "23502", null))).isFalse();
+    }
+
+    private static DataIntegrityViolationException violation(String message, String sqlState, String constraintName) {
+        SQLException sqlException = new SQLException(message, sqlState);
+        return new DataIntegrityViolationException("could not execute statement",
+                new ConstraintViolationException("could not execute statement", sqlException, constraintName));
+    }
+}
@@ -0,0 +1,85 @@
+package com.zoe.server.domain.user.services;
+
+import com.zoe.server.domain.auth.dtos.AuthRequestDto;
+import com.zoe.server.domain.auth.dtos.RegisterPatientRequestDto;
+import com.zoe.server.domain.auth.services.AuthService;
+import com.zoe.server.domain.patient.models.Patient;
+import com.zoe.server.domain.psychologist.models.Psychologist;
+import com.zoe.server.domain.user.enums.UserRole;
+import com.zoe.server.domain.user.models.CustomUserDetails;
+import com.zoe.server.domain.user.models.User;
+import com.zoe.server.domain.user.models.UserCredentials;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Transactional
+class CustomUserDetailsServiceTest {
+
+    private static final String PASSWORD = "correct-horse-battery";
+
+    @Autowired
+    private CustomUserDetailsService userDetailsService;
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Statistics statistics;
+    private String email;
+
+    @BeforeEach
+    void registerPatient() {
+        email = "lookup-" + UUID.randomUUID() + "@example.com";
+        authService.registerPatient(new RegisterPatientRequestDto("Lookup", "Test", email, PASSWORD, PASSWORD));
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void loadsTheCredentialsWithOneSelect() {
+        CustomUserDetails details = userDetailsService.loadUserByUsername(email);
+
+        assertThat(details.getUsername()).isEqualTo(email);
+        assertThat(details.getAccount().role()).isEqualTo(UserRole.PATIENT);
+        assertThat(details.isAccountNonLocked()).isTrue();
+        assertThat(details.isEnabled()).isTrue();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertNoEntitiesLoaded();
+    }
+
+    @Test
+    void loginLoadsNoPartOfTheUserAggregate() {
+        authService.login(new AuthRequestDto(email, PASSWORD));
+
+        assertNoEntitiesLoaded();
+    }
+
+    private void assertNoEntitiesLoaded() {
+        for (Class<?> entity : List.of(User.class, UserCredentials.class, Patient.class, Psychologist.class)) {
+            assertThat(statistics.getEntityStatistics(entity.getName()).getLoadCount())
+                    .as(entity.getSimpleName() + " loads")
+                    .isZero();
+        }
+    }
+}